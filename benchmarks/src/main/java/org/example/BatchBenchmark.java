@@ -0,0 +1,68 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1,000 greetings against a running instance over mTLS, sent as single sayHello calls (batchSize 1)
+ * or as sayHelloBatch calls of the given size. Scores are per greeting.
+ *
+ * Prerequisites as for {@link MtlsLoopbackBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchBenchmark {
+
+    private static final int GREETINGS = 1000;
+
+    /** Items per call; 1 uses the single-item sayHello operation */
+    @Param({"1", "10", "100", "1000"})
+    int batchSize;
+
+    org.example.client.HelloWorldService client;
+    List<List<String>> batches;
+
+    @Setup
+    public void setup() throws Exception {
+        client = BenchmarkSupport.mtlsClient();
+        batches = new ArrayList<>();
+        for (int start = 0; start < GREETINGS; start += batchSize) {
+            List<String> batch = new ArrayList<>(batchSize);
+            for (int i = start; i < start + batchSize; i++) {
+                batch.add("Benchmark " + i);
+            }
+            batches.add(batch);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GREETINGS)
+    public void greetings(Blackhole blackhole) {
+        for (List<String> batch : batches) {
+            if (batchSize == 1) {
+                blackhole.consume(client.sayHello(batch.get(0)));
+            } else {
+                blackhole.consume(client.sayHelloBatch(batch));
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package org.example;
+
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.Feature;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Shared helpers for the JMH benchmarks: payloads, in-process CXF endpoints and mTLS clients
+ */
+final class BenchmarkSupport {
+
+    /** Address used by the in-process (local transport) endpoint */
+    static final String LOCAL_ADDRESS = "local://benchmark/HelloWorldService";
+
+    /** Service URL of a running instance, override with -Dsoap.benchmark.url=... */
+    static final String SERVICE_URL = System.getProperty(
+        "soap.benchmark.url", "https://localhost:8444/soap/HelloWorldService");
+
+    /** Client keystore used for mutual TLS, override with -Dsoap.benchmark.client-keystore=... */
+    static final String CLIENT_KEYSTORE = System.getProperty(
+        "soap.benchmark.client-keystore", "client-keystore.p12");
+
+    static final String KEYSTORE_PASSWORD = System.getProperty(
+        "soap.benchmark.client-keystore-password", "changeit");
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Build an ASCII payload of exactly the given length
+     */
+    static String payload(int size) {
+        char[] chars = new char[size];
+        for (int i = 0; i < size; i++) {
+            chars[i] = (char) ('a' + (i % 26));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Create the service implementation with the collaborators CDI would inject
+     */
+    static HelloWorldServiceImpl newService() {
+        HelloWorldServiceImpl service = new HelloWorldServiceImpl();
+        service.serverTimeCache = newServerTimeCache();
+        service.batchProcessor = new BatchProcessor(1000, 256, 4);
+        return service;
+    }
+
+    static ServerTimeCache newServerTimeCache() {
+        return new ServerTimeCache("yyyy-MM-dd HH:mm:ss", Duration.ofSeconds(1), Clock.systemDefaultZone());
+    }
+
+    /**
+     * Publish the given implementation on the CXF local transport, with optional endpoint features
+     */
+    static Server publishLocal(HelloWorldService implementor, Feature... features) {
+        JaxWsServerFactoryBean factory = new JaxWsServerFactoryBean();
+        factory.getFeatures().addAll(Arrays.asList(features));
+        factory.setServiceClass(HelloWorldService.class);
+        factory.setServiceBean(implementor);
+        factory.setAddress(LOCAL_ADDRESS);
+        factory.setTransportId(LocalTransportFactory.TRANSPORT_ID);
+        return factory.create();
+    }
+
+    /**
+     * Create a client proxy for the local endpoint. Direct dispatch keeps the whole exchange
+     * on the calling thread while still marshalling and unmarshalling both messages.
+     */
+    static HelloWorldService localClient() {
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setServiceClass(HelloWorldService.class);
+        factory.setAddress(LOCAL_ADDRESS);
+        HelloWorldService port = (HelloWorldService) factory.create();
+        ClientProxy.getClient(port).getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        return port;
+    }
+
+    /**
+     * Create a generated-client proxy for a running instance, configured for mutual TLS
+     */
+    static org.example.client.HelloWorldService mtlsClient() throws Exception {
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setServiceClass(org.example.client.HelloWorldService.class);
+        factory.setAddress(SERVICE_URL);
+        org.example.client.HelloWorldService port = (org.example.client.HelloWorldService) factory.create();
+
+        Client client = ClientProxy.getClient(port);
+        HTTPConduit conduit = (HTTPConduit) client.getConduit();
+
+        TLSClientParameters tlsParams = new TLSClientParameters();
+        tlsParams.setDisableCNCheck(true);
+        tlsParams.setKeyManagers(keyManagerFactory().getKeyManagers());
+
+        // Trust all certificates (the service uses a self-signed certificate)
+        tlsParams.setTrustManagers(trustAll());
+        conduit.setTlsClientParameters(tlsParams);
+        return port;
+    }
+
+    static TrustManager[] trustAll() {
+        return new TrustManager[]{
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+                public void checkClientTrusted(X509Certificate[] certs, String authType) { }
+                public void checkServerTrusted(X509Certificate[] certs, String authType) { }
+            }
+        };
+    }
+
+    /**
+     * Load the client keystore from the file system, falling back to the classpath
+     */
+    static KeyStore clientKeyStore() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream is = new FileInputStream(CLIENT_KEYSTORE)) {
+            keyStore.load(is, KEYSTORE_PASSWORD.toCharArray());
+        } catch (FileNotFoundException e) {
+            try (InputStream is = BenchmarkSupport.class.getClassLoader().getResourceAsStream(CLIENT_KEYSTORE)) {
+                if (is == null) {
+                    throw new IllegalStateException("Client keystore not found: " + CLIENT_KEYSTORE
+                        + ". Run the benchmarks from the project root or set -Dsoap.benchmark.client-keystore");
+                }
+                keyStore.load(is, KEYSTORE_PASSWORD.toCharArray());
+            }
+        }
+        return keyStore;
+    }
+
+    static KeyManagerFactory keyManagerFactory() throws Exception {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(clientKeyStore(), KEYSTORE_PASSWORD.toCharArray());
+        return kmf;
+    }
+}
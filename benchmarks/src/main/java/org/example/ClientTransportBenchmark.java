@@ -0,0 +1,120 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * sayHello from 16 threads against a running instance, over three client transports:
+ * - http1-per-call: HTTP/1.1 with Connection: close, so every call opens a connection and handshakes
+ * - http1-keep-alive: HTTP/1.1 with a keep-alive pool, one connection per concurrent call
+ * - http2: HTTP/2 negotiated over ALPN, calls multiplexed as streams on one connection
+ *
+ * After each trial the TLS handshakes the server counted (soap_tls_handshakes_total) are printed per
+ * 1,000 calls. The client is the JDK HttpClient posting a fixed envelope, so only the transport differs.
+ * Prerequisites as for {@link MtlsLoopbackBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.httpclient.allowRestrictedHeaders=connection")
+@Threads(16)
+@State(Scope.Benchmark)
+public class ClientTransportBenchmark {
+
+    private static final String SAY_HELLO = """
+        <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+          <soap:Body>
+            <ns1:sayHello xmlns:ns1="http://example.org/"><name>Benchmark</name></ns1:sayHello>
+          </soap:Body>
+        </soap:Envelope>
+        """;
+
+    @Param({"http1-per-call", "http1-keep-alive", "http2"})
+    String transport;
+
+    HttpClient client;
+    HttpRequest request;
+    SSLContext sslContext;
+    final AtomicLong calls = new AtomicLong();
+    long[] handshakesBefore;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(BenchmarkSupport.keyManagerFactory().getKeyManagers(), BenchmarkSupport.trustAll(), null);
+        client = HttpClient.newBuilder()
+            .version("http2".equals(transport) ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .sslContext(sslContext)
+            .build();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(BenchmarkSupport.SERVICE_URL))
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .POST(HttpRequest.BodyPublishers.ofString(SAY_HELLO));
+        if ("http1-per-call".equals(transport)) {
+            builder.header("Connection", "close");
+        }
+        request = builder.build();
+        handshakesBefore = handshakes();
+        calls.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void report() throws Exception {
+        long[] after = handshakes();
+        double perThousand = 1000.0 / Math.max(1, calls.get());
+        System.out.printf("%n%s: %d calls, %.1f full and %.1f resumed handshakes per 1,000 calls%n",
+            transport, calls.get(), (after[0] - handshakesBefore[0]) * perThousand,
+            (after[1] - handshakesBefore[1]) * perThousand);
+    }
+
+    @Benchmark
+    public String sayHello() throws Exception {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        calls.incrementAndGet();
+        return response.body();
+    }
+
+    /**
+     * Full and resumed handshakes counted by the server so far
+     */
+    private long[] handshakes() throws Exception {
+        HttpRequest metrics = HttpRequest.newBuilder(URI.create(BenchmarkSupport.SERVICE_URL).resolve("/q/metrics")).GET().build();
+        String body = client.send(metrics, HttpResponse.BodyHandlers.ofString()).body();
+        long[] counts = new long[2];
+        for (String line : body.split("\n")) {
+            if (line.startsWith("soap_tls_handshakes_total{")) {
+                long value = (long) Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+                if (line.contains("type=\"full\"")) {
+                    counts[0] = value;
+                } else if (line.contains("type=\"resumed\"")) {
+                    counts[1] = value;
+                }
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,129 @@
+package org.example;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.transport.common.gzip.GZIPInInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CPU cost and bytes on the wire of CompressionFeature for echo across payload sizes, on the
+ * in-process CXF pipeline with the feature on both the endpoint and the client.
+ *
+ * The score is the time per call, compression included on both sides; the mean number of response
+ * bytes that crossed the transport is printed at the end of each trial.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+    /** Whether endpoint and client negotiate gzip */
+    @Param({"false", "true"})
+    boolean compression;
+
+    /** Size of the echo message in characters */
+    @Param({"100", "1024", "16384", "262144"})
+    int echoSize;
+
+    Server server;
+    HelloWorldService client;
+    String message;
+    final AtomicLong calls = new AtomicLong();
+    final AtomicLong wireBytes = new AtomicLong();
+
+    @Setup
+    public void setup() {
+        HelloWorldServiceImpl service = BenchmarkSupport.newService();
+        server = compression
+            ? BenchmarkSupport.publishLocal(service, new CompressionFeature(true, 1024))
+            : BenchmarkSupport.publishLocal(service);
+        client = BenchmarkSupport.localClient();
+        org.apache.cxf.endpoint.Client proxy = ClientProxy.getClient(client);
+        if (compression) {
+            new CompressionFeature(true, 1024).initialize(proxy, proxy.getBus());
+        }
+        proxy.getInInterceptors().add(new WireCounter(calls, wireBytes));
+        message = BenchmarkSupport.payload(echoSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        long n = calls.get();
+        System.out.printf("%ncompression=%s echoSize=%d: %d response bytes on the wire per call%n",
+            compression, echoSize, n == 0 ? 0 : wireBytes.get() / n);
+        server.destroy();
+    }
+
+    @Benchmark
+    public String echo() {
+        return client.echo(message);
+    }
+
+    /**
+     * Counts the response bytes as received, before the GZIP interceptor inflates them
+     */
+    static final class WireCounter extends AbstractPhaseInterceptor<Message> {
+
+        private final AtomicLong calls;
+        private final AtomicLong bytes;
+
+        WireCounter(AtomicLong calls, AtomicLong bytes) {
+            super(Phase.RECEIVE);
+            addBefore(GZIPInInterceptor.class.getName());
+            this.calls = calls;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            InputStream in = message.getContent(InputStream.class);
+            if (in == null) {
+                return;
+            }
+            calls.incrementAndGet();
+            message.setContent(InputStream.class, new FilterInputStream(in) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        bytes.incrementAndGet();
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) {
+                        bytes.addAndGet(n);
+                    }
+                    return n;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.example;
+
+import org.apache.cxf.endpoint.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layer 2: the full CXF pipeline in-process (marshal, unmarshal, invoke, marshal, unmarshal)
+ * over the CXF local transport, so no sockets or TLS are involved
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CxfInProcessBenchmark {
+
+    /** Whether sayHello, getServerTime and echo are answered from precompiled response templates */
+    @Param({"false", "true"})
+    boolean templates;
+
+    Server server;
+    HelloWorldService client;
+
+    @Setup
+    public void setup() {
+        HelloWorldServiceImpl service = BenchmarkSupport.newService();
+        server = templates
+            ? BenchmarkSupport.publishLocal(service,
+                new ResponseTemplateFeature(true, Set.of("sayHello", "getServerTime", "echo"), service.serverTimeCache))
+            : BenchmarkSupport.publishLocal(service);
+        client = BenchmarkSupport.localClient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.destroy();
+    }
+
+    /**
+     * The echo message, in its own state so only the echo benchmark runs once per size
+     */
+    @State(Scope.Benchmark)
+    public static class EchoMessage {
+
+        /** Size of the echo message in characters */
+        @Param({"16", "1024", "65536", "1048576"})
+        int echoSize;
+
+        String message;
+
+        @Setup
+        public void setup() {
+            message = BenchmarkSupport.payload(echoSize);
+        }
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return client.sayHello("Benchmark");
+    }
+
+    @Benchmark
+    public String getServerTime() {
+        return client.getServerTime();
+    }
+
+    @Benchmark
+    public String echo(EchoMessage echo) {
+        return client.echo(echo.message);
+    }
+}
@@ -0,0 +1,139 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLEngineResult.HandshakeStatus;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full mTLS handshakes between two in-memory SSLEngines, with and without the client certificate cache.
+ *
+ * The client engines are created without a peer host, so no session is ever resumed and every
+ * handshake verifies the client chain. Single-threaded, so the time per handshake is its CPU time.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class HandshakeBenchmark {
+
+    private static final String PASSWORD = "changeit";
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    /** Whether client chain validations are served from ClientCertificateCache */
+    @Param({"false", "true"})
+    boolean certificateCache;
+
+    SSLContext server;
+    SSLContext client;
+    ByteBuffer clientToServer;
+    ByteBuffer serverToClient;
+    ByteBuffer clientApp;
+    ByteBuffer serverApp;
+
+    @Setup
+    public void setup() throws Exception {
+        KeyManagerFactory serverKeys = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        serverKeys.init(load("keystore.p12"), PASSWORD.toCharArray());
+        TrustManagerFactory serverTrust = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        serverTrust.init(load("truststore.p12"));
+        if (certificateCache) {
+            serverTrust = new ClientCertificateCache(true, 1000, Duration.ofMinutes(10)).trustManagers(serverTrust);
+        }
+        server = SSLContext.getInstance("TLS");
+        server.init(serverKeys.getKeyManagers(), serverTrust.getTrustManagers(), null);
+
+        client = SSLContext.getInstance("TLS");
+        client.init(BenchmarkSupport.keyManagerFactory().getKeyManagers(), BenchmarkSupport.trustAll(), null);
+
+        int packetSize = server.createSSLEngine().getSession().getPacketBufferSize();
+        // Room for a whole flight of handshake records
+        clientToServer = ByteBuffer.allocate(4 * packetSize);
+        serverToClient = ByteBuffer.allocate(4 * packetSize);
+        clientApp = ByteBuffer.allocate(packetSize);
+        serverApp = ByteBuffer.allocate(packetSize);
+    }
+
+    private static KeyStore load(String resource) throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream is = HandshakeBenchmark.class.getClassLoader().getResourceAsStream(resource)) {
+            if (is == null) {
+                throw new IllegalStateException(resource + " not found on the classpath");
+            }
+            keyStore.load(is, PASSWORD.toCharArray());
+        }
+        return keyStore;
+    }
+
+    @Benchmark
+    public String handshake() throws SSLException {
+        SSLEngine clientEngine = client.createSSLEngine();
+        clientEngine.setUseClientMode(true);
+        SSLEngine serverEngine = server.createSSLEngine();
+        serverEngine.setUseClientMode(false);
+        serverEngine.setNeedClientAuth(true);
+
+        clientToServer.clear();
+        serverToClient.clear();
+        clientEngine.beginHandshake();
+        serverEngine.beginHandshake();
+        while (!done(clientEngine) || !done(serverEngine)) {
+            step(clientEngine, serverToClient, clientToServer, clientApp);
+            step(serverEngine, clientToServer, serverToClient, serverApp);
+        }
+        return serverEngine.getSession().getCipherSuite();
+    }
+
+    private static boolean done(SSLEngine engine) {
+        HandshakeStatus status = engine.getHandshakeStatus();
+        return status == HandshakeStatus.NOT_HANDSHAKING || status == HandshakeStatus.FINISHED;
+    }
+
+    /**
+     * Advance one engine: consume what the peer sent, run delegated tasks and send what it has
+     */
+    private static void step(SSLEngine engine, ByteBuffer in, ByteBuffer out, ByteBuffer app) throws SSLException {
+        in.flip();
+        while (in.hasRemaining() && engine.getHandshakeStatus() == HandshakeStatus.NEED_UNWRAP) {
+            app.clear();
+            if (engine.unwrap(in, app).bytesConsumed() == 0) {
+                break;
+            }
+            runTasks(engine);
+        }
+        in.compact();
+        while (engine.getHandshakeStatus() == HandshakeStatus.NEED_WRAP) {
+            engine.wrap(EMPTY, out);
+            runTasks(engine);
+        }
+        runTasks(engine);
+    }
+
+    private static void runTasks(SSLEngine engine) {
+        Runnable task;
+        while ((task = engine.getDelegatedTask()) != null) {
+            task.run();
+        }
+    }
+}
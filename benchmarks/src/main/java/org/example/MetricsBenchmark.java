@@ -0,0 +1,62 @@
+package org.example;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.cxf.endpoint.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of SoapMetricsFeature on the in-process CXF pipeline: compare the metrics=true and
+ * metrics=false scores of the same operation; the target is a difference below 1 us per call.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    /** Whether the endpoint records per-operation metrics */
+    @Param({"false", "true"})
+    boolean metrics;
+
+    Server server;
+    HelloWorldService client;
+
+    @Setup
+    public void setup() {
+        HelloWorldServiceImpl service = BenchmarkSupport.newService();
+        server = metrics
+            ? BenchmarkSupport.publishLocal(service, new SoapMetricsFeature(true, new SimpleMeterRegistry()))
+            : BenchmarkSupport.publishLocal(service);
+        client = BenchmarkSupport.localClient();
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.destroy();
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return client.sayHello("Benchmark");
+    }
+
+    @Benchmark
+    public String echo() {
+        return client.echo("Benchmark");
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layer 3: a running instance over loopback HTTPS with mutual TLS.
+ *
+ * Prerequisites: start the service (./mvnw quarkus:dev or java -jar target/quarkus-app/quarkus-run.jar)
+ * and run the benchmarks from the project root so client-keystore.p12 can be found.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class MtlsLoopbackBenchmark {
+
+    org.example.client.HelloWorldService client;
+
+    @Setup
+    public void setup() throws Exception {
+        client = BenchmarkSupport.mtlsClient();
+    }
+
+    /**
+     * The echo message, in its own state so only the echo benchmark runs once per size
+     */
+    @State(Scope.Benchmark)
+    public static class EchoMessage {
+
+        /** Size of the echo message in characters */
+        @Param({"16", "1024", "65536", "1048576"})
+        int echoSize;
+
+        String message;
+
+        @Setup
+        public void setup() {
+            message = BenchmarkSupport.payload(echoSize);
+        }
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return client.sayHello("Benchmark");
+    }
+
+    @Benchmark
+    public String getServerTime() {
+        return client.getServerTime();
+    }
+
+    @Benchmark
+    public String echo(EchoMessage echo) {
+        return client.echo(echo.message);
+    }
+}
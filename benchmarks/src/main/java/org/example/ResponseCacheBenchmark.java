@@ -0,0 +1,112 @@
+package org.example;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.cxf.endpoint.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sayHello throughput on the in-process CXF pipeline under a Zipfian name distribution, with and
+ * without the response cache. The cache holds fewer entries than there are distinct names, so the
+ * score also reflects how well W-TinyLFU keeps the popular names.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class ResponseCacheBenchmark {
+
+    private static final int SAMPLES = 1 << 20;
+
+    /** Whether the endpoint answers repeated names from the response cache */
+    @Param({"false", "true"})
+    boolean cache;
+
+    /** Number of distinct names */
+    @Param({"100000"})
+    int names;
+
+    /** Zipf exponent; around 1 matches traffic where a few thousand names make up most calls */
+    @Param({"0.99"})
+    double skew;
+
+    /** Maximum number of cached responses */
+    @Param({"5000"})
+    int cacheSize;
+
+    Server server;
+    HelloWorldService client;
+    SimpleMeterRegistry registry;
+    String[] workload;
+
+    @Setup
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        HelloWorldServiceImpl service = BenchmarkSupport.newService();
+        server = cache
+            ? BenchmarkSupport.publishLocal(service,
+                new ResponseCacheFeature(true, Set.of("sayHello"), cacheSize, 64L << 20, registry))
+            : BenchmarkSupport.publishLocal(service);
+        client = BenchmarkSupport.localClient();
+        workload = zipf(names, skew, SAMPLES, new Random(42));
+    }
+
+    @TearDown
+    public void tearDown() {
+        registry.find("soap.response.cache.hit.ratio").gauges()
+            .forEach(gauge -> System.out.printf("%nhit ratio %.3f%n", gauge.value()));
+        server.destroy();
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return client.sayHello(workload[ThreadLocalRandom.current().nextInt(SAMPLES)]);
+    }
+
+    /**
+     * Draw names "User 0" .. "User n-1" where rank k has probability proportional to 1 / (k + 1)^s
+     */
+    static String[] zipf(int n, double s, int samples, Random random) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1 / Math.pow(k + 1, s);
+            cumulative[k] = sum;
+        }
+        String[] result = new String[samples];
+        for (int i = 0; i < samples; i++) {
+            double u = random.nextDouble() * sum;
+            int low = 0;
+            int high = n - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            result[i] = "User " + low;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package org.example;
+
+import org.apache.cxf.staxutils.StaxUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing one echo response envelope to the transport stream; run with -prof gc for bytes/op.
+ *
+ * stax writes the envelope through a StAX writer, the way the marshalling path does, string escapes
+ * with String.replace and encodes with getBytes, and template uses {@link ResponseTemplates}: escaping
+ * and UTF-8 encoding in one pass into a per-thread buffer, handed to the stream in one write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ResponseWriterBenchmark {
+
+    /** ascii: plain text, multibyte: accented, CJK and emoji text, escapes: markup-heavy text */
+    @Param({"ascii", "multibyte", "escapes"})
+    String input;
+
+    @Param({"64", "4096"})
+    int length;
+
+    String value;
+    ResponseTemplates templates;
+    final CountingOutputStream out = new CountingOutputStream();
+
+    @Setup
+    public void setup() {
+        String unit = switch (input) {
+            case "ascii" -> "Hello, World! Welcome to Quarkus SOAP Service. ";
+            case "multibyte" -> "Grüße aus Zürich, 東京からこんにちは 👋 ";
+            default -> "<a href=\"x?a=1&b=2\">R&D</a> ";
+        };
+        value = "Echo: " + unit.repeat(length / unit.length() + 1).substring(0, length);
+        templates = ResponseTemplates.load(Set.of("echo"));
+    }
+
+    @Benchmark
+    public long stax() throws Exception {
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out, "UTF-8");
+        writer.writeStartElement("soap", "Envelope", ResponseTemplates.SOAP_NAMESPACE);
+        writer.writeNamespace("soap", ResponseTemplates.SOAP_NAMESPACE);
+        writer.writeStartElement("soap", "Body", ResponseTemplates.SOAP_NAMESPACE);
+        writer.writeStartElement("ns2", "echoResponse", "http://example.org/");
+        writer.writeNamespace("ns2", "http://example.org/");
+        writer.writeStartElement("return");
+        writer.writeCharacters(value);
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.flush();
+        writer.close();
+        return out.count;
+    }
+
+    @Benchmark
+    public long string() throws Exception {
+        String escaped = value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\r", "&#xD;");
+        out.write(("<soap:Envelope xmlns:soap=\"" + ResponseTemplates.SOAP_NAMESPACE + "\"><soap:Body>"
+            + "<ns2:echoResponse xmlns:ns2=\"http://example.org/\"><return>" + escaped
+            + "</return></ns2:echoResponse></soap:Body></soap:Envelope>").getBytes(StandardCharsets.UTF_8));
+        return out.count;
+    }
+
+    @Benchmark
+    public long template() throws Exception {
+        templates.write("echo", value, out);
+        return out.count;
+    }
+
+    /**
+     * Stands in for the transport stream: counts the bytes and keeps nothing
+     */
+    static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.message.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of request validation on the in-process pipeline:
+ * - off: no schema validation
+ * - cxf: CXF's own schema validation (schema-validation-enabled=IN)
+ * - streaming: {@link SchemaValidationFeature}, the compiled schema fed from the request reader
+ *
+ * The parser limits are on in the streaming mode only, so the difference to off is the whole feature.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchemaValidationBenchmark {
+
+    @Param({"off", "cxf", "streaming"})
+    String validation;
+
+    /** Number of messages in the echoBatch request */
+    @Param({"10", "1000"})
+    int batchSize;
+
+    Server server;
+    HelloWorldService client;
+    List<String> messages;
+
+    @Setup
+    public void setup() {
+        HelloWorldServiceImpl service = BenchmarkSupport.newService();
+        server = "streaming".equals(validation)
+            ? BenchmarkSupport.publishLocal(service, new SchemaValidationFeature(true, 64, 16 * 1024 * 1024, 64L * 1024 * 1024))
+            : BenchmarkSupport.publishLocal(service);
+        if ("cxf".equals(validation)) {
+            server.getEndpoint().put(Message.SCHEMA_VALIDATION_ENABLED, "IN");
+        }
+        client = BenchmarkSupport.localClient();
+        messages = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            messages.add(BenchmarkSupport.payload(64));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.destroy();
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return client.sayHello("Benchmark");
+    }
+
+    @Benchmark
+    public List<String> echoBatch() {
+        return client.echoBatch(messages);
+    }
+}
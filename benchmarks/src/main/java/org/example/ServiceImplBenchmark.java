@@ -0,0 +1,67 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layer 1: the bare HelloWorldServiceImpl methods, without any SOAP processing
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServiceImplBenchmark {
+
+    HelloWorldServiceImpl service;
+
+    @Setup
+    public void setup() {
+        service = BenchmarkSupport.newService();
+    }
+
+    /**
+     * The echo message, in its own state so only the echo benchmark runs once per size
+     */
+    @State(Scope.Benchmark)
+    public static class EchoMessage {
+
+        /** Size of the echo message in characters */
+        @Param({"16", "1024", "65536", "1048576"})
+        int echoSize;
+
+        String message;
+
+        @Setup
+        public void setup() {
+            message = BenchmarkSupport.payload(echoSize);
+        }
+    }
+
+    @Benchmark
+    public String sayHello() {
+        return service.sayHello("Benchmark");
+    }
+
+    @Benchmark
+    public String getServerTime() {
+        return service.getServerTime();
+    }
+
+    @Benchmark
+    public String echo(EchoMessage echo) {
+        return service.echo(echo.message);
+    }
+}
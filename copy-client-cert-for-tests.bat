@@ -17,8 +17,9 @@ if not exist "src\test\resources" (
 
 REM Copy client keystore to test resources
 copy "client-keystore.p12" "src\test\resources\"
+if exist "client-truststore.p12" copy "client-truststore.p12" "src\test\resources\"
 
-echo ✅ Client keystore copied to src\test\resources\
+echo ✅ Client keystore and truststore copied to src\test\resources\
 echo.
 echo 🧪 You can now run the SoapClientTest with automatic mutual TLS support
 echo    The test will use the configuration from src\test\resources\application.properties
@@ -15,8 +15,9 @@ mkdir -p "src/test/resources"
 
 # Copy client keystore to test resources
 cp "client-keystore.p12" "src/test/resources/"
+[ -f "client-truststore.p12" ] && cp "client-truststore.p12" "src/test/resources/"
 
-echo "✅ Client keystore copied to src/test/resources/"
+echo "✅ Client keystore and truststore copied to src/test/resources/"
 echo ""
 echo "🧪 You can now run the SoapClientTest with mutual TLS support"
 echo ""
@@ -7,6 +7,7 @@ REM Configuration
 set SERVER_KEYSTORE=src\main\resources\keystore.p12
 set CLIENT_KEYSTORE=client-keystore.p12
 set TRUSTSTORE=src\main\resources\truststore.p12
+set CLIENT_TRUSTSTORE=client-truststore.p12
 set CLIENT_CERT=client-cert.pem
 set CLIENT_KEY=client-key.pem
 set PASSWORD=changeit
@@ -16,6 +17,7 @@ echo 🧹 Cleaning up existing certificates...
 if exist "%SERVER_KEYSTORE%" del "%SERVER_KEYSTORE%"
 if exist "%CLIENT_KEYSTORE%" del "%CLIENT_KEYSTORE%"
 if exist "%TRUSTSTORE%" del "%TRUSTSTORE%"
+if exist "%CLIENT_TRUSTSTORE%" del "%CLIENT_TRUSTSTORE%"
 if exist "%CLIENT_CERT%" del "%CLIENT_CERT%"
 if exist "%CLIENT_KEY%" del "%CLIENT_KEY%"
 if exist "client-cert.crt" del "client-cert.crt"
@@ -66,7 +68,23 @@ keytool -importcert ^
     -noprompt
 
 echo.
-echo 📄 Step 5: Exporting Client Certificate in PEM format...
+echo 🏪 Step 5: Creating Client Truststore...
+keytool -exportcert ^
+    -alias server ^
+    -keystore "%SERVER_KEYSTORE%" ^
+    -storetype PKCS12 ^
+    -storepass "%PASSWORD%" ^
+    -file server-cert.crt
+keytool -importcert ^
+    -alias server ^
+    -file server-cert.crt ^
+    -keystore "%CLIENT_TRUSTSTORE%" ^
+    -storetype PKCS12 ^
+    -storepass "%PASSWORD%" ^
+    -noprompt
+
+echo.
+echo 📄 Step 6: Exporting Client Certificate in PEM format...
 keytool -exportcert ^
     -alias client ^
     -keystore "%CLIENT_KEYSTORE%" ^
@@ -78,6 +96,7 @@ keytool -exportcert ^
 echo.
 echo 🧹 Cleaning up temporary files...
 if exist "client-cert.crt" del "client-cert.crt"
+if exist "server-cert.crt" del "server-cert.crt"
 
 echo.
 echo ✅ Certificates Generated Successfully!
@@ -86,6 +105,7 @@ echo 📁 Files created:
 echo    Server Keystore: %SERVER_KEYSTORE%
 echo    Server Truststore: %TRUSTSTORE%
 echo    Client Keystore: %CLIENT_KEYSTORE%
+echo    Client Truststore: %CLIENT_TRUSTSTORE%
 echo    Client Certificate: %CLIENT_CERT%
 echo.
 pause
@@ -8,13 +8,14 @@ echo ""
 SERVER_KEYSTORE="src/main/resources/keystore.p12"
 CLIENT_KEYSTORE="client-keystore.p12"
 TRUSTSTORE="src/main/resources/truststore.p12"
+CLIENT_TRUSTSTORE="client-truststore.p12"
 CLIENT_CERT="client-cert.pem"
 CLIENT_KEY="client-key.pem"
 PASSWORD="changeit"
 
 # Clean up existing certificates
 echo "🧹 Cleaning up existing certificates..."
-rm -f "$SERVER_KEYSTORE" "$CLIENT_KEYSTORE" "$TRUSTSTORE" "$CLIENT_CERT" "$CLIENT_KEY"
+rm -f "$SERVER_KEYSTORE" "$CLIENT_KEYSTORE" "$TRUSTSTORE" "$CLIENT_TRUSTSTORE" "$CLIENT_CERT" "$CLIENT_KEY"
 rm -f server-cert.pem client-cert.crt server-cert.crt
 
 echo ""
@@ -63,7 +64,23 @@ keytool -importcert \
     -noprompt
 
 echo ""
-echo "📄 Step 5: Exporting Client Certificate and Key for curl testing..."
+echo "🏪 Step 5: Creating Client Truststore with Server Certificate..."
+keytool -exportcert \
+    -alias server \
+    -keystore "$SERVER_KEYSTORE" \
+    -storetype PKCS12 \
+    -storepass "$PASSWORD" \
+    -file server-cert.crt
+keytool -importcert \
+    -alias server \
+    -file server-cert.crt \
+    -keystore "$CLIENT_TRUSTSTORE" \
+    -storetype PKCS12 \
+    -storepass "$PASSWORD" \
+    -noprompt
+
+echo ""
+echo "📄 Step 6: Exporting Client Certificate and Key for curl testing..."
 # Export client certificate in PEM format
 keytool -exportcert \
     -alias client \
@@ -85,7 +102,7 @@ fi
 
 echo ""
 echo "🧹 Cleaning up temporary files..."
-rm -f client-cert.crt
+rm -f client-cert.crt server-cert.crt
 
 echo ""
 echo "✅ Mutual TLS Certificates Generated Successfully!"
@@ -94,6 +111,7 @@ echo "📁 Generated Files:"
 echo "   Server Keystore: $SERVER_KEYSTORE"
 echo "   Server Truststore: $TRUSTSTORE"
 echo "   Client Keystore: $CLIENT_KEYSTORE"
+echo "   Client Truststore: $CLIENT_TRUSTSTORE"
 echo "   Client Certificate (PEM): $CLIENT_CERT"
 echo "   Client Private Key (PEM): $CLIENT_KEY"
 echo ""
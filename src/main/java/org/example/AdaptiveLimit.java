@@ -0,0 +1,105 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to queueing delay, in the style of gradient limiters and CoDel.
+ *
+ * Request latencies are collected per window. Like CoDel, the minimum latency of a window is taken as the
+ * signal: if even the fastest request waited, there is a standing queue. That minimum is compared with a
+ * long-term baseline (the lowest window minimum, drifting up slowly only while the limit is not reached),
+ * and the limit is scaled by the gradient baseline * tolerance / minimum, capped to [0.5, 1]. Without
+ * queueing the gradient is 1 and the limit grows by sqrt(limit) per window, so it keeps probing for more
+ * capacity. Windows in which the in-flight count stayed below half the limit say nothing about capacity
+ * and leave the limit alone.
+ */
+final class AdaptiveLimit {
+
+    private static final double SMOOTHING = 0.2;
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final double tolerance;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong windowStart;
+    private final AtomicLong windowMin = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicInteger windowPeak = new AtomicInteger();
+    private volatile int limit;
+    private volatile double baseline;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long windowNanos, double tolerance, long now) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.windowNanos = windowNanos;
+        this.tolerance = tolerance;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.windowStart = new AtomicLong(now);
+    }
+
+    /**
+     * Admit one more request if the in-flight count is below the current limit
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                windowPeak.accumulateAndGet(current + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Complete an admitted request
+     * @param latencyNanos time from admission to the end of the response
+     * @param now the current System.nanoTime()
+     */
+    void release(long latencyNanos, long now) {
+        inFlight.decrementAndGet();
+        windowMin.accumulateAndGet(latencyNanos, Math::min);
+        long start = windowStart.get();
+        // One caller per window recomputes the limit
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            update(windowMin.getAndSet(Long.MAX_VALUE), windowPeak.getAndSet(inFlight.get()));
+        }
+    }
+
+    private void update(long minimum, int peak) {
+        if (minimum == Long.MAX_VALUE) {
+            return;
+        }
+        int current = limit;
+        double base = baseline;
+        if (base == 0 || minimum < base) {
+            // The first window with traffic sets the baseline, saturated or not
+            baseline = minimum;
+        } else if (peak < current || current == minLimit) {
+            // Only follow a slower service while the limit is not what holds requests back;
+            // otherwise the baseline would chase the queueing delay the limit is meant to bound
+            baseline = base + (minimum - base) * BASELINE_DRIFT;
+        }
+
+        if (peak < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baseline / Math.max(1, minimum)));
+        double target = current * gradient + Math.sqrt(current);
+        int next = (int) Math.round(current * (1 - SMOOTHING) + target * SMOOTHING);
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+}
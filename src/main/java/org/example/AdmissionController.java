@@ -0,0 +1,95 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * Admission control for the SOAP endpoint: sheds requests beyond an {@link AdaptiveLimit} of concurrent
+ * requests instead of letting them queue for a worker thread.
+ *
+ * Runs as a Vert.x filter after the per-client rate limiter. Shed requests are answered at once with
+ * HTTP 503, Retry-After: 1 and a SOAP Server (1.1) or Receiver (1.2) fault, and counted in
+ * soap_admission_shed_total; the current limit is exported as soap_admission_limit and shown in /health.
+ */
+@ApplicationScoped
+public class AdmissionController {
+
+    private final boolean enabled;
+    private final String path;
+    private final AdaptiveLimit limit;
+    private final Counter shed;
+
+    @Inject
+    public AdmissionController(
+            @ConfigProperty(name = "soap.admission.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "soap.admission.initial-limit", defaultValue = "100") int initialLimit,
+            @ConfigProperty(name = "soap.admission.min-limit", defaultValue = "8") int minLimit,
+            @ConfigProperty(name = "soap.admission.max-limit", defaultValue = "1000") int maxLimit,
+            @ConfigProperty(name = "soap.admission.window", defaultValue = "100ms") Duration window,
+            @ConfigProperty(name = "soap.admission.tolerance", defaultValue = "2.0") double tolerance,
+            @ConfigProperty(name = "quarkus.cxf.path", defaultValue = "/services") String path,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.path = path;
+        this.limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, window.toNanos(), tolerance, System.nanoTime());
+        this.shed = Counter.builder("soap.admission.shed")
+            .description("SOAP requests rejected with 503 because the concurrency limit was reached")
+            .register(registry);
+        Gauge.builder("soap.admission.limit", limit, AdaptiveLimit::limit)
+            .description("Current adaptive concurrency limit of the SOAP endpoint")
+            .register(registry);
+        Gauge.builder("soap.admission.in.flight", limit, AdaptiveLimit::inFlight)
+            .description("SOAP requests currently admitted")
+            .register(registry);
+    }
+
+    void registerFilter(@Observes Filters filters) {
+        if (enabled) {
+            filters.register(this::filter, 90);
+        }
+    }
+
+    private void filter(RoutingContext context) {
+        if (context.request().method() != HttpMethod.POST || !context.normalizedPath().startsWith(path)) {
+            context.next();
+            return;
+        }
+        if (!limit.tryAcquire()) {
+            shed.increment();
+            SoapFaultResponse.send(context, 503, false, "Service overloaded, retry later", 1);
+            return;
+        }
+        long start = System.nanoTime();
+        context.addEndHandler(ignored -> {
+            long now = System.nanoTime();
+            limit.release(now - start, now);
+        });
+        context.next();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int limit() {
+        return limit.limit();
+    }
+
+    public int inFlight() {
+        return limit.inFlight();
+    }
+
+    public long shed() {
+        return (long) shed.count();
+    }
+}
@@ -4,6 +4,7 @@ import io.quarkus.runtime.Quarkus;
 import io.quarkus.runtime.QuarkusApplication;
 import io.quarkus.runtime.annotations.QuarkusMain;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 /**
  * Main Quarkus application class
@@ -12,6 +13,9 @@ import jakarta.enterprise.context.ApplicationScoped;
 @ApplicationScoped
 public class App implements QuarkusApplication {
 
+    @Inject
+    DrainController drain;
+
     public static void main(String[] args) {
         Quarkus.run(App.class, args);
     }
@@ -25,6 +29,8 @@ public class App implements QuarkusApplication {
         System.out.println("🔑 Client certificate required for all connections");
 
         Quarkus.waitForExit();
+        // The shutdown hook is now running the shutdown delay; drain while it does
+        drain.startDrain();
         return 0;
     }
 }
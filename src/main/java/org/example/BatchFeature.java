@@ -0,0 +1,29 @@
+package org.example;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * CXF feature that rejects batch requests above soap.batch.max-size while they are parsed
+ */
+@ApplicationScoped
+@Named("batchFeature")
+public class BatchFeature extends AbstractFeature {
+
+    private final int maxSize;
+
+    @Inject
+    public BatchFeature(@ConfigProperty(name = "soap.batch.max-size", defaultValue = "1000") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        provider.getInInterceptors().add(new BatchSizeInterceptor(maxSize));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.interceptor.Fault;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Applies a single-item operation to every item of a batch request, in request order.
+ *
+ * Batches of at least soap.batch.parallel-threshold items are split into one slice per thread of a
+ * dedicated pool of soap.batch.threads, plus one the calling thread processes itself; smaller ones run
+ * on the calling thread, where splitting costs more than it saves. The pool's queue is bounded, and
+ * slices that do not fit run on the calling thread too. Batches larger than soap.batch.max-size are
+ * rejected with a client fault; requests are already stopped while they are parsed
+ * ({@link BatchSizeInterceptor}), the check here covers callers that bypass CXF.
+ */
+@ApplicationScoped
+public class BatchProcessor {
+
+    private final int maxSize;
+    private final int parallelThreshold;
+    private final int threads;
+    private final ThreadPoolExecutor pool;
+
+    @Inject
+    public BatchProcessor(
+            @ConfigProperty(name = "soap.batch.max-size", defaultValue = "1000") int maxSize,
+            @ConfigProperty(name = "soap.batch.parallel-threshold", defaultValue = "256") int parallelThreshold,
+            @ConfigProperty(name = "soap.batch.threads", defaultValue = "4") int threads) {
+        this.maxSize = maxSize;
+        this.parallelThreshold = parallelThreshold;
+        this.threads = threads;
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 16),
+            task -> {
+                Thread thread = new Thread(task, "soap-batch-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public List<String> apply(List<String> items, UnaryOperator<String> operation) {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        if (items.size() > maxSize) {
+            throw new SoapFault("Batch of " + items.size() + " items exceeds the maximum of " + maxSize,
+                Fault.FAULT_CODE_CLIENT);
+        }
+        if (items.size() < parallelThreshold) {
+            List<String> results = new ArrayList<>(items.size());
+            for (String item : items) {
+                results.add(operation.apply(item));
+            }
+            return results;
+        }
+        // Each slice writes its own range, so results stay aligned with the request items
+        String[] results = new String[items.size()];
+        int slice = (items.size() + threads) / (threads + 1);
+        List<CompletableFuture<Void>> slices = new ArrayList<>(threads);
+        for (int from = slice; from < items.size(); from += slice) {
+            int start = from;
+            slices.add(CompletableFuture.runAsync(
+                () -> applyRange(items, operation, results, start, Math.min(start + slice, items.size())), pool));
+        }
+        applyRange(items, operation, results, 0, Math.min(slice, items.size()));
+        try {
+            CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        return Arrays.asList(results);
+    }
+
+    private static void applyRange(List<String> items, UnaryOperator<String> operation, String[] results, int from, int to) {
+        for (int i = from; i < to; i++) {
+            results[i] = operation.apply(items.get(i));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdown();
+    }
+}
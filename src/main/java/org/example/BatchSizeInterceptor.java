@@ -0,0 +1,112 @@
+package org.example;
+
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
+import org.apache.cxf.binding.soap.interceptor.StartBodyInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.util.Set;
+
+/**
+ * Rejects batch requests with more than maxSize items while they are read, so an oversized batch is
+ * never unmarshalled into a list first.
+ *
+ * Runs in READ once the reader is on the operation element and, for sayHelloBatch and echoBatch, counts
+ * the children of the operation element as JAXB pulls them; the first item over the limit ends the
+ * request with a client fault.
+ */
+public class BatchSizeInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private static final Set<QName> BATCH_OPERATIONS = Set.of(
+        new QName(StreamingEchoInterceptor.NAMESPACE, "sayHelloBatch"),
+        new QName(StreamingEchoInterceptor.NAMESPACE, "echoBatch"));
+
+    private final int maxSize;
+
+    public BatchSizeInterceptor(int maxSize) {
+        super(Phase.READ);
+        addAfter(ReadHeadersInterceptor.class.getName());
+        addAfter(StartBodyInterceptor.class.getName());
+        addAfter(SchemaValidationInterceptor.class.getName());
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        if (MessageUtils.isRequestor(message)) {
+            return;
+        }
+        XMLStreamReader reader = message.getContent(XMLStreamReader.class);
+        if (reader == null) {
+            return;
+        }
+        try {
+            SchemaValidationInterceptor.skipIgnorable(reader);
+            if (reader.isStartElement() && BATCH_OPERATIONS.contains(reader.getName())) {
+                message.setContent(XMLStreamReader.class, new CountingReader(reader, maxSize));
+            }
+        } catch (XMLStreamException e) {
+            throw new Fault(e);
+        }
+    }
+
+    /**
+     * Counts the child elements of the operation element the reader starts on
+     */
+    private static final class CountingReader extends StreamReaderDelegate {
+
+        private final int maxSize;
+        private int depth = 1;
+        private int items;
+
+        CountingReader(XMLStreamReader reader, int maxSize) {
+            super(reader);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            int event = super.next();
+            if (event == XMLStreamConstants.START_ELEMENT && ++depth == 2 && ++items > maxSize) {
+                throw new SoapFault("Batch exceeds the maximum of " + maxSize + " items",
+                    Fault.FAULT_CODE_CLIENT);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+            return event;
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            int event = next();
+            while ((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                    || (event == XMLStreamConstants.CDATA && isWhiteSpace())
+                    || event == XMLStreamConstants.SPACE
+                    || event == XMLStreamConstants.COMMENT
+                    || event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                event = next();
+            }
+            if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+                throw new XMLStreamException("Expected a start or end tag", getLocation());
+            }
+            return event;
+        }
+
+        @Override
+        public String getElementText() throws XMLStreamException {
+            // Reads up to and including the end tag of the current element
+            String text = super.getElementText();
+            depth--;
+            return text;
+        }
+    }
+}
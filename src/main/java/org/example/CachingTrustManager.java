@@ -0,0 +1,203 @@
+package org.example;
+
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.ManagerFactoryParameters;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.TrustManagerFactorySpi;
+import javax.net.ssl.X509ExtendedTrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.net.Socket;
+import java.security.AlgorithmConstraints;
+import java.security.CryptoPrimitive;
+import java.security.KeyStore;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Trust manager that skips path building for client chains found in the {@link ClientCertificateCache}.
+ *
+ * Only successful validations are cached; a rejected chain is validated again on every handshake.
+ * Lookups and entries carry the generation of the trust material this manager wraps, so a manager
+ * replaced by a reload cannot vouch for a chain towards its successor.
+ *
+ * Being an X509ExtendedTrustManager, this manager is not wrapped by the JDK, which would otherwise check
+ * the chain against the algorithm constraints of the handshake around a plain X509TrustManager such as
+ * the expiry checking wrapper of the Quarkus TLS registry. Those checks depend on the handshake, not
+ * on the chain, so they run on every handshake before the cache is consulted. The expiry check of the
+ * wrapper is covered by the cache only holding chains inside their validity period.
+ * Server-side checks are delegated unchanged.
+ */
+class CachingTrustManager extends X509ExtendedTrustManager {
+
+    private static final Set<CryptoPrimitive> SIGNATURE = EnumSet.of(CryptoPrimitive.SIGNATURE);
+
+    private final X509TrustManager delegate;
+    private final ClientCertificateCache cache;
+    private final long generation;
+
+    CachingTrustManager(X509TrustManager delegate, ClientCertificateCache cache, long generation) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.generation = generation;
+    }
+
+    /**
+     * A factory handing out caching wrappers around the X509 trust managers of the given factory
+     */
+    static TrustManagerFactory factory(TrustManagerFactory factory, ClientCertificateCache cache, long generation) {
+        TrustManager[] managers = factory.getTrustManagers().clone();
+        for (int i = 0; i < managers.length; i++) {
+            if (managers[i] instanceof X509TrustManager x509) {
+                managers[i] = new CachingTrustManager(x509, cache, generation);
+            }
+        }
+        return new WrappedFactory(managers, factory);
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+        if (engine != null) {
+            checkAlgorithmConstraints(chain, engine.getHandshakeSession(), engine.getSSLParameters());
+        }
+        String fingerprint = ClientCertificateCache.fingerprint(chain, authType);
+        if (!cache.isValidated(generation, fingerprint)) {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkClientTrusted(chain, authType, engine);
+            } else {
+                delegate.checkClientTrusted(chain, authType);
+            }
+            cache.validated(generation, fingerprint, chain);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        if (socket instanceof SSLSocket ssl && ssl.isConnected()) {
+            checkAlgorithmConstraints(chain, ssl.getHandshakeSession(), ssl.getSSLParameters());
+        }
+        String fingerprint = ClientCertificateCache.fingerprint(chain, authType);
+        if (!cache.isValidated(generation, fingerprint)) {
+            if (delegate instanceof X509ExtendedTrustManager extended) {
+                extended.checkClientTrusted(chain, authType, socket);
+            } else {
+                delegate.checkClientTrusted(chain, authType);
+            }
+            cache.validated(generation, fingerprint, chain);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        String fingerprint = ClientCertificateCache.fingerprint(chain, authType);
+        if (!cache.isValidated(generation, fingerprint)) {
+            delegate.checkClientTrusted(chain, authType);
+            cache.validated(generation, fingerprint, chain);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, SSLEngine engine) throws CertificateException {
+        if (delegate instanceof X509ExtendedTrustManager extended) {
+            extended.checkServerTrusted(chain, authType, engine);
+        } else {
+            delegate.checkServerTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType, Socket socket) throws CertificateException {
+        if (delegate instanceof X509ExtendedTrustManager extended) {
+            extended.checkServerTrusted(chain, authType, socket);
+        } else {
+            delegate.checkServerTrusted(chain, authType);
+        }
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate[] chain, String authType) throws CertificateException {
+        delegate.checkServerTrusted(chain, authType);
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return delegate.getAcceptedIssuers();
+    }
+
+    /**
+     * What the JDK checks around a plain X509TrustManager: every certificate of the chain but a trust anchor
+     * must be signed with an algorithm offered in the handshake (TLS 1.2 and later) and allowed by the
+     * algorithm constraints of the engine or socket
+     */
+    private void checkAlgorithmConstraints(X509Certificate[] chain, SSLSession session, SSLParameters parameters)
+            throws CertificateException {
+        if (session == null) {
+            throw new CertificateException("No handshake session");
+        }
+        String[] offered = session instanceof ExtendedSSLSession extended
+            ? extended.getLocalSupportedSignatureAlgorithms()
+            : new String[0];
+        AlgorithmConstraints constraints = parameters.getAlgorithmConstraints();
+        int checked = chain.length;
+        if (checked > 0 && Arrays.asList(delegate.getAcceptedIssuers()).contains(chain[checked - 1])) {
+            checked--;
+        }
+        for (int i = 0; i < checked; i++) {
+            String algorithm = chain[i].getSigAlgName();
+            if (offered.length > 0 && !offers(offered, algorithm)) {
+                throw new CertificateException("Certificate signature algorithm " + algorithm + " was not offered");
+            }
+            if (constraints != null && (!constraints.permits(SIGNATURE, algorithm, null)
+                    || !constraints.permits(SIGNATURE, chain[i].getPublicKey()))) {
+                throw new CertificateException("Certificate algorithm " + algorithm + " is not permitted");
+            }
+        }
+    }
+
+    private static boolean offers(String[] offered, String algorithm) {
+        for (String candidate : offered) {
+            if (candidate.equalsIgnoreCase(algorithm)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class WrappedFactory extends TrustManagerFactory {
+
+        WrappedFactory(TrustManager[] managers, TrustManagerFactory original) {
+            super(new Spi(managers), original.getProvider(), original.getAlgorithm());
+        }
+    }
+
+    private static final class Spi extends TrustManagerFactorySpi {
+
+        private final TrustManager[] managers;
+
+        Spi(TrustManager[] managers) {
+            this.managers = managers;
+        }
+
+        @Override
+        protected void engineInit(KeyStore keyStore) {
+            // Already initialised from the wrapped factory
+        }
+
+        @Override
+        protected void engineInit(ManagerFactoryParameters parameters) {
+            // Already initialised from the wrapped factory
+        }
+
+        @Override
+        protected TrustManager[] engineGetTrustManagers() {
+            return managers.clone();
+        }
+    }
+}
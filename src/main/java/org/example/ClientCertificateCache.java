@@ -0,0 +1,125 @@
+package org.example;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.quarkus.tls.CertificateUpdatedEvent;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.net.ssl.TrustManagerFactory;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, expiring cache of client certificate chains that already passed truststore validation.
+ *
+ * Chains are keyed by the SHA-256 fingerprint of their certificates and the key exchange auth type,
+ * and by the generation of the trust material that validated them. An entry lives for the configured
+ * TTL, but never beyond the earliest notAfter in its chain; chains outside their validity period are not
+ * cached at all.
+ * Every reload of the trust material ({@link CertificateUpdatedEvent}) starts a new generation, so a
+ * removed CA takes effect at once: a validation by the old trust manager that completes after the reload
+ * lands under the old generation and is never seen by the new one. Server contexts built without a reload
+ * keep the current generation and share its entries.
+ */
+@ApplicationScoped
+public class ClientCertificateCache {
+
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Cache<String, Long> validated;
+    private final AtomicLong generation = new AtomicLong();
+
+    @Inject
+    public ClientCertificateCache(
+            @ConfigProperty(name = "soap.tls.client-cert-cache.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "soap.tls.client-cert-cache.maximum-size", defaultValue = "1000") long maximumSize,
+            @ConfigProperty(name = "soap.tls.client-cert-cache.ttl", defaultValue = "10m") Duration ttl) {
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.validated = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(Expiry.creating((String key, Long notAfter) -> lifetime(notAfter)))
+            .recordStats()
+            .build();
+    }
+
+    private Duration lifetime(long notAfterMillis) {
+        Duration untilExpiry = Duration.ofMillis(Math.max(0, notAfterMillis - System.currentTimeMillis()));
+        return untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl;
+    }
+
+    /**
+     * Wrap the trust material of a server context so client chain checks go through this cache
+     */
+    public TrustManagerFactory trustManagers(TrustManagerFactory factory) {
+        return enabled ? CachingTrustManager.factory(factory, this, generation.get()) : factory;
+    }
+
+    /**
+     * Start a new generation before the HTTP server picks up reloaded trust material, so the contexts it
+     * builds for it get the new generation
+     */
+    void onCertificateUpdate(@Observes @Priority(1) CertificateUpdatedEvent event) {
+        generation.incrementAndGet();
+        // Entries of earlier generations can no longer match; drop them instead of waiting for eviction
+        validated.invalidateAll();
+    }
+
+    boolean isValidated(long generation, String fingerprint) {
+        return validated.getIfPresent(generation + "/" + fingerprint) != null;
+    }
+
+    void validated(long generation, String fingerprint, X509Certificate[] chain) {
+        long now = System.currentTimeMillis();
+        long notAfter = Long.MAX_VALUE;
+        for (X509Certificate certificate : chain) {
+            if (certificate.getNotBefore().getTime() > now) {
+                // The expiry policy of the trust store has a say on every handshake with this chain
+                return;
+            }
+            notAfter = Math.min(notAfter, certificate.getNotAfter().getTime());
+        }
+        if (notAfter > now) {
+            validated.put(generation + "/" + fingerprint, notAfter);
+        }
+    }
+
+    static String fingerprint(X509Certificate[] chain, String authType) throws CertificateEncodingException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (X509Certificate certificate : chain) {
+            digest.update(certificate.getEncoded());
+        }
+        return HexFormat.of().formatHex(digest.digest()) + ':' + authType;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long hits() {
+        return validated.stats().hitCount();
+    }
+
+    public long misses() {
+        return validated.stats().missCount();
+    }
+
+    public long size() {
+        return validated.estimatedSize();
+    }
+}
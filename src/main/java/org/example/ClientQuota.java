@@ -0,0 +1,61 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket and in-flight counter of one client, both updated with a single CAS and no locks.
+ *
+ * The bucket is kept as a generic cell rate algorithm: instead of a token count and a refill time it
+ * stores the theoretical arrival time of the next request, so a permit is one compare-and-set on a long.
+ * A request at time now is allowed while tat - now stays within the burst tolerance.
+ */
+final class ClientQuota {
+
+    private final AtomicLong theoreticalArrival;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    ClientQuota(long now) {
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Take one permit
+     * @param now the current System.nanoTime()
+     * @param interval nanoseconds between two permits at the sustained rate
+     * @param tolerance how far ahead of the sustained rate a burst may run, in nanoseconds
+     * @return 0 when the permit was taken, else the nanoseconds until the next one is available
+     */
+    long tryAcquire(long now, long interval, long tolerance) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long base = Math.max(current, now);
+            long wait = base - tolerance - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, base + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Count one more request in flight, unless the client already has max of them
+     */
+    boolean enter(int max) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    void exit() {
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Per-client rate limits and in-flight quotas for SOAP requests, keyed by the mTLS client certificate.
+ *
+ * Runs as a Vert.x filter in front of CXF, so a rejected request costs no worker thread and no parsing.
+ * Each client, identified by the SHA-256 fingerprint of its certificate (or its address without one),
+ * gets a {@link ClientQuota}: a token bucket of rate requests per second with the given burst, and at
+ * most max-in-flight concurrent requests. Quotas live in a Caffeine cache and expire when idle.
+ * Rejected requests get a SOAP Client (1.1) or Sender (1.2) fault with a Retry-After header and are
+ * counted in soap_rate_limit_rejected_total{reason=rate|concurrency}.
+ */
+@ApplicationScoped
+public class ClientRateLimiter {
+
+    /** SSLSession value holding the client fingerprint, so it is computed once per TLS session */
+    static final String FINGERPRINT = "org.example.client-fingerprint";
+
+    private final boolean enabled;
+    private final String path;
+    private final long interval;
+    private final long tolerance;
+    private final int maxInFlight;
+    private final Cache<String, ClientQuota> quotas;
+    private final Counter rateRejected;
+    private final Counter concurrencyRejected;
+
+    @Inject
+    public ClientRateLimiter(
+            @ConfigProperty(name = "soap.rate-limit.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "soap.rate-limit.rate", defaultValue = "1000") double rate,
+            @ConfigProperty(name = "soap.rate-limit.burst", defaultValue = "200") int burst,
+            @ConfigProperty(name = "soap.rate-limit.max-in-flight", defaultValue = "64") int maxInFlight,
+            @ConfigProperty(name = "soap.rate-limit.idle-timeout", defaultValue = "10m") Duration idleTimeout,
+            @ConfigProperty(name = "quarkus.cxf.path", defaultValue = "/services") String path,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.path = path;
+        this.interval = (long) (1_000_000_000L / rate);
+        this.tolerance = interval * Math.max(0, burst - 1);
+        this.maxInFlight = maxInFlight;
+        this.quotas = Caffeine.newBuilder()
+            .expireAfterAccess(idleTimeout)
+            .build();
+        this.rateRejected = rejected(registry, "rate");
+        this.concurrencyRejected = rejected(registry, "concurrency");
+        Gauge.builder("soap.rate.limit.clients", quotas, Cache::estimatedSize)
+            .description("Clients with an active rate limit quota")
+            .register(registry);
+    }
+
+    private static Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder("soap.rate.limit.rejected")
+            .description("SOAP requests rejected by the per-client rate limiter")
+            .tag("reason", reason)
+            .register(registry);
+    }
+
+    void registerFilter(@Observes Filters filters) {
+        if (enabled) {
+            filters.register(this::filter, 100);
+        }
+    }
+
+    private void filter(RoutingContext context) {
+        if (context.request().method() != HttpMethod.POST || !context.normalizedPath().startsWith(path)) {
+            context.next();
+            return;
+        }
+        ClientQuota quota = quotas.get(clientId(context), id -> new ClientQuota(System.nanoTime()));
+        if (!quota.enter(maxInFlight)) {
+            concurrencyRejected.increment();
+            reject(context, "Too many concurrent requests for this client", 1);
+            return;
+        }
+        long wait = quota.tryAcquire(System.nanoTime(), interval, tolerance);
+        if (wait > 0) {
+            quota.exit();
+            rateRejected.increment();
+            reject(context, "Request rate limit exceeded for this client", wait);
+            return;
+        }
+        context.addEndHandler(ignored -> quota.exit());
+        context.next();
+    }
+
+    /**
+     * The fingerprint of the client certificate, or the remote host when there is none
+     */
+    static String clientId(RoutingContext context) {
+        SSLSession session = context.request().sslSession();
+        if (session != null) {
+            Object cached = session.getValue(FINGERPRINT);
+            if (cached instanceof String fingerprint) {
+                return fingerprint;
+            }
+            try {
+                Certificate[] chain = session.getPeerCertificates();
+                if (chain.length > 0) {
+                    String fingerprint = fingerprint(chain[0]);
+                    session.putValue(FINGERPRINT, fingerprint);
+                    return fingerprint;
+                }
+            } catch (SSLPeerUnverifiedException | CertificateEncodingException e) {
+                // fall back to the address
+            }
+        }
+        return "address:" + context.request().remoteAddress().host();
+    }
+
+    static String fingerprint(Certificate certificate) throws CertificateEncodingException {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void reject(RoutingContext context, String reason, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        // SOAP 1.1 reports every fault with 500, SOAP 1.2 uses 400 for Sender faults
+        SoapFaultResponse.send(context, SoapFaultResponse.isSoap12(context) ? 400 : 500, true, reason, retryAfterSeconds);
+    }
+}
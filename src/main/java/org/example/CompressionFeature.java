@@ -0,0 +1,70 @@
+package org.example;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.transport.common.gzip.GZIPInInterceptor;
+import org.apache.cxf.transport.common.gzip.GZIPOutInterceptor;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Negotiated GZIP compression for SOAP messages, for the endpoint as well as for clients.
+ *
+ * On the endpoint, responses of at least the threshold are compressed when the request carries
+ * Accept-Encoding: gzip, and gzip request bodies are inflated. On a client it does the reverse:
+ * requests above the threshold are compressed and gzip responses are accepted.
+ *
+ * Adds CXF's gzip interceptors itself rather than extending GZIPFeature: that one delegates its
+ * initialisation to an inner feature, so an override of initializeProvider would never be called.
+ */
+@ApplicationScoped
+@Named("compressionFeature")
+public class CompressionFeature extends AbstractFeature {
+
+    private final boolean compressionEnabled;
+    private final int threshold;
+
+    @Inject
+    public CompressionFeature(
+            @ConfigProperty(name = "soap.compression.enabled", defaultValue = "true") boolean compressionEnabled,
+            @ConfigProperty(name = "soap.compression.threshold", defaultValue = "1024") int threshold) {
+        this.compressionEnabled = compressionEnabled;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (compressionEnabled) {
+            provider.getInInterceptors().add(new GZIPInInterceptor());
+            GZIPOutInterceptor out = new GZIPOutInterceptor(threshold);
+            provider.getOutInterceptors().add(out);
+            provider.getOutFaultInterceptors().add(out);
+        }
+    }
+
+    /**
+     * Whether an Accept-Encoding header value allows a gzip response
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip") || name.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].replace(" ", "");
+                    if (param.equals("q=0") || param.matches("q=0\\.0*")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+}
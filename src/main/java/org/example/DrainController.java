@@ -0,0 +1,137 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.ShutdownEvent;
+import io.quarkus.vertx.http.runtime.filters.Filters;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Graceful drain on shutdown, so rolling deploys do not cut off SOAP calls in flight.
+ *
+ * Draining starts as soon as shutdown is requested, when {@link App} returns from Quarkus.waitForExit()
+ * while the shutdown hook runs the Quarkus shutdown delay (quarkus.shutdown.delay): /health answers
+ * 503 DRAINING so load balancers stop routing here, HTTP/1.1 responses go out with Connection: close
+ * and their connection is closed, and HTTP/2 connections get a GOAWAY, so clients reconnect elsewhere
+ * while every request already sent is still served. Once the delay is over, the Quarkus graceful
+ * shutdown refuses new requests and waits for the running ones (quarkus.shutdown.timeout); SOAP calls
+ * still running when the application stops are given up. Calls completed while draining and calls
+ * given up are counted in soap_drain_calls_total{outcome=drained|aborted}.
+ */
+@ApplicationScoped
+public class DrainController {
+
+    private static final Logger LOG = Logger.getLogger(DrainController.class);
+
+    private final boolean enabled;
+    private final String path;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter drained;
+    private final Counter aborted;
+
+    private volatile boolean draining;
+    private volatile boolean finished;
+    private volatile long drainStart;
+
+    @Inject
+    public DrainController(
+            @ConfigProperty(name = "soap.drain.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "quarkus.cxf.path", defaultValue = "/services") String path,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.path = path;
+        this.drained = Counter.builder("soap.drain.calls")
+            .tag("outcome", "drained")
+            .description("SOAP calls completed while the instance was draining")
+            .register(registry);
+        this.aborted = Counter.builder("soap.drain.calls")
+            .tag("outcome", "aborted")
+            .description("SOAP calls cut off while draining, by the client or at the drain deadline")
+            .register(registry);
+        Gauge.builder("soap.drain.in.flight", inFlight, AtomicInteger::get)
+            .description("SOAP calls currently being served")
+            .register(registry);
+    }
+
+    void registerFilter(@Observes Filters filters) {
+        if (enabled) {
+            // Ahead of the rate limiter and admission control, so every request is seen
+            filters.register(this::filter, 200);
+        }
+    }
+
+    /**
+     * Fired after the shutdown delay and the graceful shutdown wait, so calls still running now are cut off
+     */
+    void onShutdown(@Observes @Priority(1) ShutdownEvent event) {
+        if (!enabled) {
+            return;
+        }
+        startDrain();
+        finished = true;
+        aborted.increment(inFlight.get());
+        LOG.infof("Drained in %d ms: %d SOAP calls completed, %d aborted",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - drainStart),
+            (long) drained.count(), (long) aborted.count());
+    }
+
+    /**
+     * Start draining; called when shutdown is requested and again, in case it was not, on ShutdownEvent
+     */
+    public synchronized void startDrain() {
+        if (enabled && !draining) {
+            drainStart = System.nanoTime();
+            draining = true;
+            LOG.infof("Draining: %d SOAP calls in flight", inFlight.get());
+        }
+    }
+
+    private void filter(RoutingContext context) {
+        HttpServerRequest request = context.request();
+        // Decided when the response goes out, so responses to requests accepted before the drain are covered
+        context.addHeadersEndHandler(ignored -> {
+            if (!draining) {
+                return;
+            }
+            if (request.version() == HttpVersion.HTTP_2) {
+                request.connection().goAway(0);
+            } else {
+                context.response().putHeader(HttpHeaders.CONNECTION, HttpHeaders.CLOSE);
+            }
+        });
+        boolean soapCall = request.method() == HttpMethod.POST && context.normalizedPath().startsWith(path);
+        if (soapCall) {
+            inFlight.incrementAndGet();
+        }
+        context.addEndHandler(result -> {
+            if (soapCall) {
+                inFlight.decrementAndGet();
+                if (draining && !finished) {
+                    (result.succeeded() ? drained : aborted).increment();
+                }
+            }
+            if (draining && request.version() != HttpVersion.HTTP_2) {
+                request.connection().close();
+            }
+        });
+        context.next();
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+}
@@ -1,5 +1,6 @@
 package org.example;
 
+import jakarta.inject.Inject;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -14,19 +15,47 @@ import java.util.Map;
 @Path("/health")
 public class HealthResource {
 
+    @Inject
+    ClientCertificateCache certificateCache;
+
+    @Inject
+    AdmissionController admissionController;
+
+    @Inject
+    StartupWarmup warmup;
+
+    @Inject
+    DrainController drain;
+
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response health() {
+        // Not ready until the SOAP warm-up is done and again once draining, so load balancers hold traffic back
+        boolean draining = drain.isDraining();
+        boolean ready = warmup.isReady() && !draining;
         Map<String, Object> status = Map.of(
-            "status", "UP",
+            "status", draining ? "DRAINING" : ready ? "UP" : "WARMING_UP",
             "service", "Quarkus SOAP Service",
             "timestamp", LocalDateTime.now().toString(),
             "soap_endpoint", "/soap",
             "wsdl_url", "/soap/HelloWorldService?wsdl",
+            "metrics_url", "/q/metrics",
             "https_enabled", true,
-            "mutual_tls_enabled", true
+            "mutual_tls_enabled", true,
+            "client_certificate_cache", Map.of(
+                "enabled", certificateCache.isEnabled(),
+                "hits", certificateCache.hits(),
+                "misses", certificateCache.misses(),
+                "size", certificateCache.size()),
+            "admission_control", Map.of(
+                "enabled", admissionController.isEnabled(),
+                "limit", admissionController.limit(),
+                "in_flight", admissionController.inFlight(),
+                "shed", admissionController.shed())
         );
-        return Response.ok(status).build();
+        return Response.status(ready ? Response.Status.OK : Response.Status.SERVICE_UNAVAILABLE)
+            .entity(status)
+            .build();
     }
 
     @GET
@@ -40,12 +69,16 @@ public class HealthResource {
             📋 WSDL: https://localhost:8444/soap/HelloWorldService?wsdl
             🔒 Mutual TLS: Enabled with client certificate authentication
             ⚡ Health Check: https://localhost:8444/health
+            📊 Metrics: https://localhost:8444/q/metrics
             🔑 Client Certificate: Required for all connections
 
             Available SOAP Methods:
             - sayHello(name): Returns a greeting message
             - getServerTime(): Returns current server time
             - echo(message): Echoes the input message
+            - sayHelloBatch(names): Greets every name in one call
+            - echoBatch(messages): Echoes every message in one call
+            - echoBinary(data): Echoes a binary payload, streamed as an MTOM attachment
             """;
     }
 }
@@ -1,8 +1,12 @@
 package org.example;
 
+import jakarta.activation.DataHandler;
 import jakarta.jws.WebMethod;
 import jakarta.jws.WebParam;
 import jakarta.jws.WebService;
+import jakarta.xml.bind.annotation.XmlMimeType;
+
+import java.util.List;
 
 /**
  * SOAP Web Service interface for Hello World service
@@ -32,4 +36,29 @@ public interface HelloWorldService {
      */
     @WebMethod
     String echo(@WebParam(name = "message") String message);
+
+    /**
+     * Greet every name in one call
+     * @param names the names to greet
+     * @return one greeting per name, in the same order
+     */
+    @WebMethod
+    List<String> sayHelloBatch(@WebParam(name = "names") List<String> names);
+
+    /**
+     * Echo every message in one call
+     * @param messages the messages to echo
+     * @return one echo per message, in the same order
+     */
+    @WebMethod
+    List<String> echoBatch(@WebParam(name = "messages") List<String> messages);
+
+    /**
+     * Echo a binary payload; sent as an MTOM attachment it is streamed back without being buffered
+     * @param data the content to echo
+     * @return the same content
+     */
+    @WebMethod
+    @XmlMimeType("application/octet-stream")
+    DataHandler echoBinary(@WebParam(name = "data") @XmlMimeType("application/octet-stream") DataHandler data);
 }
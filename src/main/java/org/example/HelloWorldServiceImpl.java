@@ -1,13 +1,18 @@
 package org.example;
 
 import io.quarkiverse.cxf.annotation.CXFEndpoint;
+import jakarta.activation.DataHandler;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 import jakarta.jws.WebService;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+
+import java.util.List;
 
 /**
  * Implementation of the Hello World SOAP service
+ *
+ * There are no server-side *Async variants: the quarkus-cxf HTTP transport does not support
+ * continuations, so CXF always invokes the synchronous methods. Async calls are a client-side mapping.
  */
 @WebService(
     serviceName = "HelloWorldService",
@@ -19,6 +24,12 @@ import java.time.format.DateTimeFormatter;
 @ApplicationScoped
 public class HelloWorldServiceImpl implements HelloWorldService {
 
+    @Inject
+    ServerTimeCache serverTimeCache;
+
+    @Inject
+    BatchProcessor batchProcessor;
+
     @Override
     public String sayHello(String name) {
         if (name == null || name.trim().isEmpty()) {
@@ -29,9 +40,7 @@ public class HelloWorldServiceImpl implements HelloWorldService {
 
     @Override
     public String getServerTime() {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-        return "Current server time: " + now.format(formatter);
+        return serverTimeCache.current();
     }
 
     @Override
@@ -41,4 +50,23 @@ public class HelloWorldServiceImpl implements HelloWorldService {
         }
         return "Echo: " + message;
     }
+
+    @Override
+    public List<String> sayHelloBatch(List<String> names) {
+        return batchProcessor.apply(names, this::sayHello);
+    }
+
+    @Override
+    public List<String> echoBatch(List<String> messages) {
+        return batchProcessor.apply(messages, this::echo);
+    }
+
+    /**
+     * The request attachment is handed back as is, so the response is written straight from the
+     * incoming attachment stream.
+     */
+    @Override
+    public DataHandler echoBinary(DataHandler data) {
+        return data;
+    }
 }
@@ -0,0 +1,33 @@
+package org.example;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client out-interceptor that drops the Connection header CXF sets from the client policy on every request
+ * (quarkus-cxf always configures one). Over HTTP/2 connection-specific headers are malformed and the server
+ * resets the stream; over HTTP/1.1 connections are kept alive by default, so nothing is lost there either.
+ *
+ * Every quarkus-cxf client of this service that uses the Vert.x conduit with version=2 needs it:
+ *   quarkus.cxf.client."name".out-interceptors=org.example.Http2ConnectionHeaderInterceptor
+ */
+public class Http2ConnectionHeaderInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    public Http2ConnectionHeaderInterceptor() {
+        super(Phase.PRE_STREAM);
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>) message.get(Message.PROTOCOL_HEADERS));
+        if (headers != null) {
+            headers.keySet().removeIf("Connection"::equalsIgnoreCase);
+        }
+    }
+}
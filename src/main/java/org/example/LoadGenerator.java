@@ -0,0 +1,377 @@
+package org.example;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Open-loop load generator for the mTLS endpoint, run as a separate main next to {@link App}:
+ *
+ *   mvn compile exec:java -Dexec.args="--rate=2000 --duration=60s --max-p99-ms=50"
+ *
+ * Envelopes are read from sample-requests/ and sent round-robin at a fixed target rate over a fixed
+ * number of keep-alive connections, each presenting client-keystore.p12 and verifying the server against
+ * client-truststore.p12. Every request has an intended send time on the schedule, and its latency is
+ * measured from that time rather than from when a connection got round to sending it. A stalled server therefore shows up as latency for every request
+ * that should have been sent meanwhile, instead of being hidden by the senders backing off (coordinated
+ * omission). The service time, measured from the actual send, is reported alongside.
+ *
+ * Prints a JSON summary per operation and exits with 1 when --max-p99-ms or --max-error-rate is exceeded.
+ */
+public final class LoadGenerator {
+
+    private static final Pattern OPERATION = Pattern.compile("<(?:\\w+:)?Body[^>]*>\\s*<(?:\\w+:)?(\\w+)");
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(Options.USAGE);
+            System.exit(2);
+            return;
+        }
+        Summary summary = run(options);
+        String json = summary.toJson();
+        if (options.output() == null) {
+            System.out.println(json);
+        } else {
+            Files.writeString(options.output(), json);
+        }
+        List<String> violations = summary.violations(options.maxP99Millis(), options.maxErrorRate());
+        violations.forEach(System.err::println);
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    /**
+     * Run the load described by the options and collect the results
+     */
+    public static Summary run(Options options) throws Exception {
+        List<Operation> operations = loadOperations(options.requests());
+        SSLContext sslContext = sslContext(options.keystore(), options.truststore(), options.password());
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.rate();
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + options.warmup().toNanos();
+        long end = measureFrom + options.duration().toNanos();
+        AtomicLong next = new AtomicLong();
+        AtomicLong lastDone = new AtomicLong(measureFrom);
+
+        Thread[] connections = new Thread[options.connections()];
+        for (int i = 0; i < connections.length; i++) {
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .sslContext(sslContext)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+            connections[i] = new Thread(() -> {
+                while (true) {
+                    long index = next.getAndIncrement();
+                    long intended = start + index * interval;
+                    if (intended >= end) {
+                        return;
+                    }
+                    Operation operation = operations.get((int) (index % operations.size()));
+                    long now;
+                    while ((now = System.nanoTime()) < intended) {
+                        LockSupport.parkNanos(intended - now);
+                    }
+                    boolean ok = send(client, options.url(), operation.body);
+                    long done = System.nanoTime();
+                    if (intended >= measureFrom) {
+                        operation.record(done - intended, done - now, ok);
+                        lastDone.accumulateAndGet(done, Math::max);
+                    }
+                }
+            }, "load-connection-" + i);
+            connections[i].start();
+        }
+        for (Thread connection : connections) {
+            connection.join();
+        }
+        return new Summary(options, operations, lastDone.get() - measureFrom);
+    }
+
+    private static boolean send(HttpClient client, URI url, String body) {
+        HttpRequest request = HttpRequest.newBuilder(url)
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .timeout(Duration.ofSeconds(30))
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * One operation per envelope file, named after the first element in the SOAP body
+     */
+    static List<Operation> loadOperations(Path directory) throws IOException {
+        List<Operation> operations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".xml")).sorted().toList()) {
+                String body = Files.readString(file);
+                Matcher matcher = OPERATION.matcher(body);
+                operations.add(new Operation(matcher.find() ? matcher.group(1) : file.getFileName().toString(), body));
+            }
+        }
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("No *.xml envelopes in " + directory);
+        }
+        return operations;
+    }
+
+    /**
+     * Client certificate from the keystore, server certificates trusted from the truststore
+     */
+    private static SSLContext sslContext(Path keystore, Path truststore, String password) throws Exception {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(load(keystore, password), password.toCharArray());
+        TrustManagerFactory tmf = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+        tmf.init(load(truststore, password));
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(kmf.getKeyManagers(), tmf.getTrustManagers(), null);
+        return context;
+    }
+
+    private static KeyStore load(Path file, String password) throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(file)) {
+            store.load(in, password.toCharArray());
+        }
+        return store;
+    }
+
+    /**
+     * Command line options, given as --name=value
+     */
+    public record Options(URI url, Path requests, Path keystore, Path truststore, String password, int connections,
+                          int rate, Duration duration, Duration warmup, Path output, double maxP99Millis,
+                          double maxErrorRate) {
+
+        static final String USAGE = """
+            Usage: LoadGenerator [--url=https://localhost:8444/soap/HelloWorldService] [--requests=sample-requests]
+                                 [--keystore=client-keystore.p12] [--truststore=client-truststore.p12]
+                                 [--password=changeit] [--connections=16] [--rate=1000] [--duration=60s]
+                                 [--warmup=10s] [--output=summary.json] [--max-p99-ms=...] [--max-error-rate=...]""";
+
+        public static Options parse(String... args) {
+            Map<String, String> values = new LinkedHashMap<>();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("Unexpected argument: " + arg);
+                }
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+            Options options = new Options(
+                URI.create(values.getOrDefault("url", "https://localhost:8444/soap/HelloWorldService")),
+                Path.of(values.getOrDefault("requests", "sample-requests")),
+                Path.of(values.getOrDefault("keystore", "client-keystore.p12")),
+                Path.of(values.getOrDefault("truststore", "client-truststore.p12")),
+                values.getOrDefault("password", "changeit"),
+                Integer.parseInt(values.getOrDefault("connections", "16")),
+                Integer.parseInt(values.getOrDefault("rate", "1000")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                values.containsKey("output") ? Path.of(values.get("output")) : null,
+                Double.parseDouble(values.getOrDefault("max-p99-ms", "Infinity")),
+                Double.parseDouble(values.getOrDefault("max-error-rate", "1")));
+            values.keySet().removeAll(List.of("url", "requests", "keystore", "truststore", "password", "connections",
+                "rate", "duration", "warmup", "output", "max-p99-ms", "max-error-rate"));
+            if (!values.isEmpty()) {
+                throw new IllegalArgumentException("Unknown options: " + values.keySet());
+            }
+            if (options.connections() < 1 || options.rate() < 1) {
+                throw new IllegalArgumentException("--connections and --rate must be positive");
+            }
+            return options;
+        }
+
+        /**
+         * 500ms, 30s, 2m or an ISO-8601 duration
+         */
+        private static Duration duration(String value) {
+            Matcher matcher = Pattern.compile("(\\d+)(ms|s|m)").matcher(value);
+            if (!matcher.matches()) {
+                return Duration.parse(value);
+            }
+            long amount = Long.parseLong(matcher.group(1));
+            return switch (matcher.group(2)) {
+                case "ms" -> Duration.ofMillis(amount);
+                case "s" -> Duration.ofSeconds(amount);
+                default -> Duration.ofMinutes(amount);
+            };
+        }
+    }
+
+    /**
+     * One envelope and the latencies recorded for it
+     */
+    static final class Operation {
+
+        final String name;
+        final String body;
+        final Histogram latency = new ConcurrentHistogram(3);
+        final Histogram serviceTime = new ConcurrentHistogram(3);
+        final LongAdder errors = new LongAdder();
+
+        Operation(String name, String body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        void record(long latencyNanos, long serviceNanos, boolean ok) {
+            latency.recordValue(latencyNanos);
+            serviceTime.recordValue(serviceNanos);
+            if (!ok) {
+                errors.increment();
+            }
+        }
+    }
+
+    /**
+     * Results per operation, merged when several envelopes share an operation name, plus a total
+     */
+    public static final class Summary {
+
+        private final Options options;
+        private final long elapsedNanos;
+        private final Map<String, Operation> operations = new LinkedHashMap<>();
+        private final Operation total = new Operation("total", "");
+
+        /**
+         * @param elapsedNanos from the start of the measured period to the completion of its last request
+         */
+        Summary(Options options, List<Operation> recorded, long elapsedNanos) {
+            this.options = options;
+            this.elapsedNanos = elapsedNanos;
+            for (Operation operation : recorded) {
+                Operation merged = operations.computeIfAbsent(operation.name, name -> new Operation(name, ""));
+                for (Operation target : List.of(merged, total)) {
+                    target.latency.add(operation.latency);
+                    target.serviceTime.add(operation.serviceTime);
+                    target.errors.add(operation.errors.sum());
+                }
+            }
+        }
+
+        public long requests() {
+            return total.latency.getTotalCount();
+        }
+
+        public long errors() {
+            return total.errors.sum();
+        }
+
+        /**
+         * Measured requests per second over the time they actually took, which exceeds the duration when the
+         * server falls behind the schedule
+         */
+        public double throughput() {
+            return throughput(total);
+        }
+
+        private double throughput(Operation operation) {
+            return elapsedNanos <= 0 ? 0 : operation.latency.getTotalCount() / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Coordinated-omission corrected p99 of all operations, in milliseconds
+         */
+        public double p99Millis() {
+            return millis(total.latency.getValueAtPercentile(99));
+        }
+
+        List<String> violations(double maxP99Millis, double maxErrorRate) {
+            List<String> violations = new ArrayList<>();
+            for (Operation operation : operations.values()) {
+                double p99 = millis(operation.latency.getValueAtPercentile(99));
+                if (p99 > maxP99Millis) {
+                    violations.add(String.format(Locale.ROOT, "%s p99 %.3f ms exceeds %.3f ms", operation.name, p99, maxP99Millis));
+                }
+            }
+            double errorRate = requests() == 0 ? 1 : (double) errors() / requests();
+            if (errorRate > maxErrorRate) {
+                violations.add(String.format(Locale.ROOT, "error rate %.4f exceeds %.4f", errorRate, maxErrorRate));
+            }
+            return violations;
+        }
+
+        public String toJson() {
+            StringBuilder json = new StringBuilder();
+            json.append(String.format(Locale.ROOT,
+                "{\"url\":\"%s\",\"target_rate\":%d,\"connections\":%d,\"duration_s\":%.1f,\"elapsed_s\":%.3f,"
+                    + "\"operations\":{",
+                options.url(), options.rate(), options.connections(), options.duration().toMillis() / 1000.0,
+                elapsedNanos / 1e9));
+            String separator = "";
+            for (Operation operation : operations.values()) {
+                json.append(separator).append('"').append(operation.name).append("\":");
+                appendStats(json, operation);
+                separator = ",";
+            }
+            json.append("},\"total\":");
+            appendStats(json, total);
+            return json.append('}').toString();
+        }
+
+        private void appendStats(StringBuilder json, Operation operation) {
+            long count = operation.latency.getTotalCount();
+            json.append(String.format(Locale.ROOT, "{\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,",
+                count, operation.errors.sum(), throughput(operation)));
+            json.append("\"latency_ms\":");
+            appendPercentiles(json, operation.latency);
+            json.append(",\"service_time_ms\":");
+            appendPercentiles(json, operation.serviceTime);
+            json.append('}');
+        }
+
+        private static void appendPercentiles(StringBuilder json, Histogram histogram) {
+            json.append(String.format(Locale.ROOT,
+                "{\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f}",
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue())));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded asynchronous writer for captured SOAP exchanges.
+ *
+ * Request threads only offer entries to a fixed-size queue; a single daemon thread formats and logs
+ * them under the org.example.MessageLog category. When the queue is full the entry is dropped and
+ * counted in soap_message_log_dropped_total, so logging never blocks a request.
+ */
+class MessageLog implements AutoCloseable {
+
+    static final Logger LOG = Logger.getLogger(MessageLog.class);
+
+    private final BlockingQueue<Entry> queue;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    MessageLog(int queueSize, MeterRegistry registry) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.dropped = Counter.builder("soap.message.log.dropped")
+            .description("Captured exchanges dropped because the log queue was full")
+            .register(registry);
+        this.writer = new Thread(this::drain, "soap-message-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Whether exchanges should be captured at all; follows the level of the org.example.MessageLog category
+     */
+    static boolean enabled() {
+        return LOG.isInfoEnabled();
+    }
+
+    void offer(Entry entry) {
+        if (!queue.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    entry.log();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOG.debug("Cannot log SOAP exchange", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+    }
+
+    /**
+     * One logged exchange; bodies are raw bytes truncated to the configured size, or null when the
+     * exchange was not sampled and its bodies were not captured. A sampled streamed echo has no response body.
+     */
+    record Entry(String operation, String reason, long durationNanos,
+                 byte[] request, int requestSize, byte[] response, int responseSize) {
+
+        void log() {
+            if (request == null) {
+                LOG.infof("%s %s in %.3f ms (not sampled, bodies not captured)",
+                    operation, reason, durationNanos / 1_000_000.0);
+                return;
+            }
+            LOG.infof("%s %s in %.3f ms%n--- request (%d bytes) ---%n%s%n--- response (%d bytes) ---%n%s",
+                operation, reason, durationNanos / 1_000_000.0,
+                requestSize, body(request, requestSize), responseSize,
+                response == null ? "(streamed, not captured)" : body(response, responseSize));
+        }
+
+        private static String body(byte[] captured, int size) {
+            String text = new String(captured, StandardCharsets.UTF_8);
+            return captured.length < size ? text + "...[truncated]" : text;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.example;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * CXF feature answering MTOM requests with MTOM responses, so binary payloads of echoBinary travel as
+ * XOP attachments in both directions while plain SOAP clients keep getting plain responses
+ */
+@ApplicationScoped
+@Named("mtomFeature")
+public class MtomFeature extends AbstractFeature {
+
+    private final boolean mtomEnabled;
+    private final int threshold;
+    private final int memoryThreshold;
+
+    @Inject
+    public MtomFeature(
+            @ConfigProperty(name = "soap.mtom.enabled", defaultValue = "true") boolean mtomEnabled,
+            @ConfigProperty(name = "soap.mtom.threshold", defaultValue = "1024") int threshold,
+            @ConfigProperty(name = "soap.mtom.memory-threshold", defaultValue = "65536") int memoryThreshold) {
+        this.mtomEnabled = mtomEnabled;
+        this.threshold = threshold;
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (mtomEnabled) {
+            provider.getInInterceptors().add(new MtomInterceptor.Receive(memoryThreshold));
+            provider.getOutInterceptors().add(new MtomInterceptor(threshold));
+        }
+    }
+}
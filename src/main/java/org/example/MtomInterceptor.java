@@ -0,0 +1,65 @@
+package org.example;
+
+import org.apache.cxf.attachment.AttachmentDeserializer;
+import org.apache.cxf.interceptor.AttachmentInInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Switches MTOM on for the response when the request came in as an XOP package.
+ *
+ * MTOM is not enabled on the endpoint as a whole: that would turn every response, sayHello
+ * included, into a multipart/related message. Binary content of at least the threshold goes out
+ * as an attachment, smaller content stays inline as base64.
+ */
+public class MtomInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    static final String XOP_CONTENT_TYPE = "application/xop+xml";
+
+    private final int threshold;
+
+    public MtomInterceptor(int threshold) {
+        super(Phase.SETUP);
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Exchange exchange = message.getExchange();
+        if (MessageUtils.isRequestor(message) || exchange == null || !isXop(exchange.getInMessage())) {
+            return;
+        }
+        message.put(Message.MTOM_ENABLED, Boolean.TRUE);
+        message.put(Message.MTOM_THRESHOLD, threshold);
+    }
+
+    static boolean isXop(Message request) {
+        Object contentType = request == null ? null : request.get(Message.CONTENT_TYPE);
+        return contentType != null && contentType.toString().toLowerCase().contains(XOP_CONTENT_TYPE);
+    }
+
+    /**
+     * Bounds the heap CXF uses per incoming attachment; the rest is spooled to a temporary file
+     */
+    public static class Receive extends AbstractPhaseInterceptor<Message> {
+
+        private final int memoryThreshold;
+
+        public Receive(int memoryThreshold) {
+            super(Phase.RECEIVE);
+            addBefore(AttachmentInInterceptor.class.getName());
+            this.memoryThreshold = memoryThreshold;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            if (!MessageUtils.isRequestor(message)) {
+                message.put(AttachmentDeserializer.ATTACHMENT_MEMORY_THRESHOLD, String.valueOf(memoryThreshold));
+            }
+        }
+    }
+}
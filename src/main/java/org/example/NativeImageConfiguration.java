@@ -0,0 +1,27 @@
+package org.example;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Reflection registrations the native image cannot discover on its own.
+ *
+ * Caffeine instantiates a generated cache and node class per builder configuration by name, and the
+ * {@code quarkus-caffeine} extension only registers the common ones. The names below are the ones for the
+ * caches of {@link ClientCertificateCache} (stats, maximum size, variable expiry), {@link ResponseCache}
+ * (stats, maximum weight) and {@link ClientRateLimiter} (expire after access). Adding a builder option to
+ * one of those caches changes its class name, so update this list with it.
+ */
+@RegisterForReflection(
+    classNames = {
+        "com.github.benmanes.caffeine.cache.SSSMSA",
+        "com.github.benmanes.caffeine.cache.PSWMS",
+        "com.github.benmanes.caffeine.cache.SSSMW",
+        "com.github.benmanes.caffeine.cache.PSMW",
+        "com.github.benmanes.caffeine.cache.SSA",
+        "com.github.benmanes.caffeine.cache.PSA"
+    })
+final class NativeImageConfiguration {
+
+    private NativeImageConfiguration() {
+    }
+}
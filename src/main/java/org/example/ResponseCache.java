@@ -0,0 +1,52 @@
+package org.example;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size-bounded cache of complete, marshalled SOAP response envelopes.
+ *
+ * Caffeine evicts with W-TinyLFU, so a burst of one-off keys does not push out the frequent ones.
+ * Both the number of entries and their total size are bounded: each entry weighs its size in bytes,
+ * but at least maximumBytes / maximumSize, so no more than maximumSize entries ever fit.
+ * Statistics are exported as cache_* meters tagged cache=soap.response plus a hit ratio gauge.
+ */
+public class ResponseCache {
+
+    static final String NAME = "soap.response";
+
+    private final Cache<String, byte[]> responses;
+    private final int maximumEntryBytes;
+
+    public ResponseCache(long maximumSize, long maximumBytes, MeterRegistry registry) {
+        long minimumWeight = Math.max(1, maximumBytes / Math.max(1, maximumSize));
+        this.maximumEntryBytes = (int) Math.min(Integer.MAX_VALUE, Math.max(1, maximumBytes / 8));
+        this.responses = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .weigher((String key, byte[] body) -> (int) Math.min(Integer.MAX_VALUE, Math.max(body.length, minimumWeight)))
+            .recordStats()
+            .build();
+        if (registry != null) {
+            CaffeineCacheMetrics.monitor(registry, responses, NAME);
+            Gauge.builder("soap.response.cache.hit.ratio", responses, cache -> cache.stats().hitRate())
+                .description("Share of cacheable requests answered from the response cache")
+                .register(registry);
+        }
+    }
+
+    byte[] get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Store a response, unless it alone would take more than an eighth of the cache
+     */
+    void put(String key, byte[] body) {
+        if (body.length <= maximumEntryBytes) {
+            responses.put(key, body);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Set;
+
+/**
+ * CXF feature answering repeated calls of pure operations from a bounded cache of marshalled responses
+ */
+@ApplicationScoped
+@Named("responseCacheFeature")
+public class ResponseCacheFeature extends AbstractFeature {
+
+    private final boolean cacheEnabled;
+    private final Set<String> operations;
+    private final long maximumSize;
+    private final long maximumBytes;
+    private final MeterRegistry registry;
+
+    @Inject
+    public ResponseCacheFeature(
+            @ConfigProperty(name = "soap.response-cache.enabled", defaultValue = "false") boolean cacheEnabled,
+            @ConfigProperty(name = "soap.response-cache.operations", defaultValue = "sayHello") Set<String> operations,
+            @ConfigProperty(name = "soap.response-cache.maximum-size", defaultValue = "10000") long maximumSize,
+            @ConfigProperty(name = "soap.response-cache.maximum-bytes", defaultValue = "16777216") long maximumBytes,
+            MeterRegistry registry) {
+        this.cacheEnabled = cacheEnabled;
+        this.operations = operations;
+        this.maximumSize = maximumSize;
+        this.maximumBytes = maximumBytes;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (cacheEnabled) {
+            ResponseCache cache = new ResponseCache(maximumSize, maximumBytes, registry);
+            provider.getInInterceptors().add(new ResponseCacheInterceptor(cache, operations));
+            provider.getOutInterceptors().add(new ResponseCacheInterceptor.Capture(cache));
+        }
+    }
+}
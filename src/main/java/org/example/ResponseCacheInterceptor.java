@@ -0,0 +1,311 @@
+package org.example;
+
+import org.apache.cxf.binding.soap.Soap11;
+import org.apache.cxf.binding.soap.Soap12;
+import org.apache.cxf.interceptor.AttachmentOutInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.Conduit;
+
+import jakarta.jws.WebParam;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers repeated calls of pure operations from the {@link ResponseCache} before anything is unmarshalled.
+ *
+ * Small requests are read into memory in RECEIVE and their operation and arguments are pulled out with a
+ * plain StAX pass into a normalised key: prefixes, formatting whitespace between elements and the XML
+ * declaration do not matter. On a hit the cached envelope is written to the back channel and the chain is
+ * aborted; on a miss the buffered request continues through the regular pipeline and {@link Capture}
+ * stores the response once it has been written. Requests with SOAP headers, attachments or nested
+ * argument elements are never cached.
+ *
+ * The lookup runs before JAXB and schema validation, so only requests those would read the same way get
+ * a key: every argument must be an unqualified element the operation declares, without attributes other
+ * than xsi:nil, and nil only where the schema allows it (list items). Anything else is left to the regular
+ * pipeline, which answers or rejects it.
+ */
+public class ResponseCacheInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    /** Larger requests are not worth buffering to compute a key */
+    static final int MAX_REQUEST_SIZE = 8192;
+
+    private static final String XSI_NIL = "nil";
+
+    private final ResponseCache cache;
+    private final Map<String, Map<String, Boolean>> operations;
+
+    public ResponseCacheInterceptor(ResponseCache cache, Set<String> operations) {
+        super(Phase.RECEIVE);
+        addAfter(SoapMetricsInterceptor.Receive.class.getName());
+        addAfter(SampledMessageLoggingInterceptor.Receive.class.getName());
+        this.cache = cache;
+        this.operations = parameters(operations);
+    }
+
+    /**
+     * The declared arguments of the given operations of {@link HelloWorldService}, by element name, with
+     * whether they are nillable; operations the service does not have are left out
+     */
+    static Map<String, Map<String, Boolean>> parameters(Set<String> operations) {
+        Map<String, Map<String, Boolean>> parameters = new HashMap<>();
+        for (Method method : HelloWorldService.class.getMethods()) {
+            if (!operations.contains(method.getName())) {
+                continue;
+            }
+            Map<String, Boolean> arguments = new HashMap<>();
+            for (Parameter parameter : method.getParameters()) {
+                WebParam param = parameter.getAnnotation(WebParam.class);
+                String name = param == null ? parameter.getName() : param.name();
+                arguments.put(name, List.class.isAssignableFrom(parameter.getType()));
+            }
+            parameters.put(method.getName(), arguments);
+        }
+        return parameters;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Exchange exchange = message.getExchange();
+        InputStream in = message.getContent(InputStream.class);
+        Object contentType = message.get(Message.CONTENT_TYPE);
+        if (MessageUtils.isRequestor(message) || exchange == null || in == null || StartupWarmup.isWarmup(message)
+                || contentType != null && contentType.toString().toLowerCase().contains("multipart/")) {
+            return;
+        }
+
+        byte[] request;
+        try {
+            request = in.readNBytes(MAX_REQUEST_SIZE + 1);
+        } catch (IOException e) {
+            throw new Fault(e);
+        }
+        if (request.length > MAX_REQUEST_SIZE) {
+            message.setContent(InputStream.class, new SequenceInputStream(new ByteArrayInputStream(request), in));
+            return;
+        }
+        message.setContent(InputStream.class, new ByteArrayInputStream(request));
+
+        Key key = key(request, operations);
+        if (key == null) {
+            return;
+        }
+        byte[] response = cache.get(key.value());
+        if (response == null) {
+            exchange.put(Key.class, key);
+            return;
+        }
+
+        try {
+            respond(message, key, response);
+        } catch (IOException e) {
+            throw new Fault(e);
+        }
+        SoapMetricsInterceptor.cached(message, key.operation(), response.length);
+        SampledMessageLoggingInterceptor.answered(message, key.operation(), response);
+        // The response is complete, nothing else in the chain may touch it
+        message.getInterceptorChain().abort();
+    }
+
+    private static void respond(Message request, Key key, byte[] body) throws IOException {
+        Exchange exchange = request.getExchange();
+        Message response = new MessageImpl();
+        response.setExchange(exchange);
+        exchange.setOutMessage(response);
+        response.put(Message.RESPONSE_CODE, 200);
+        response.put(Message.CONTENT_TYPE, Soap12.SOAP_NAMESPACE.equals(key.envelope())
+            ? Soap12.getInstance().getContentType() : Soap11.getInstance().getContentType());
+        response.put(Message.ENCODING, "UTF-8");
+
+        Conduit backChannel = exchange.getDestination().getBackChannel(request);
+        backChannel.prepare(response);
+        OutputStream out = response.getContent(OutputStream.class);
+        out.write(body);
+        backChannel.close(response);
+    }
+
+    /**
+     * The normalised cache key of a request, or null when the request is not cacheable
+     */
+    static Key key(byte[] request, Map<String, Map<String, Boolean>> operations) {
+        XMLStreamReader reader = StaxUtils.createXMLStreamReader(new ByteArrayInputStream(request));
+        try {
+            if (reader.nextTag() != XMLStreamConstants.START_ELEMENT || !"Envelope".equals(reader.getLocalName())) {
+                return null;
+            }
+            String envelope = reader.getNamespaceURI();
+            if (!Soap11.SOAP_NAMESPACE.equals(envelope) && !Soap12.SOAP_NAMESPACE.equals(envelope)) {
+                return null;
+            }
+            reader.nextTag();
+            if ("Header".equals(reader.getLocalName())) {
+                // Headers may carry anything (security, addressing); only an empty one is harmless
+                if (reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+                    return null;
+                }
+                reader.nextTag();
+            }
+            if (!"Body".equals(reader.getLocalName()) || reader.nextTag() != XMLStreamConstants.START_ELEMENT) {
+                return null;
+            }
+            String operation = reader.getLocalName();
+            Map<String, Boolean> arguments = operations.get(operation);
+            if (!StreamingEchoInterceptor.NAMESPACE.equals(reader.getNamespaceURI()) || arguments == null) {
+                return null;
+            }
+
+            StringBuilder key = new StringBuilder(envelope).append(' ').append(operation);
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                String namespace = reader.getNamespaceURI();
+                Boolean nillable = arguments.get(name);
+                // JAXB skips qualified and undeclared elements, so their answer differs from the plain argument
+                if (namespace != null && !namespace.isEmpty() || nillable == null) {
+                    return null;
+                }
+                Boolean nil = nil(reader);
+                if (nil == null || nil && !nillable) {
+                    return null;
+                }
+                // Fails on nested elements, which are left to the regular pipeline
+                String text = reader.getElementText();
+                key.append(' ').append(name.length()).append(':').append(name);
+                if (nil) {
+                    key.append('!');
+                } else {
+                    key.append(text.length()).append(':').append(text);
+                }
+            }
+            return new Key(envelope, operation, key.toString());
+        } catch (XMLStreamException | RuntimeException e) {
+            return null;
+        } finally {
+            try {
+                StaxUtils.close(reader);
+            } catch (XMLStreamException e) {
+                // Nothing was read from outside the byte array, so there is nothing to release
+            }
+        }
+    }
+
+    /**
+     * Whether the current element is nil, or null when it carries any other attribute or an xsi:nil
+     * that is not a boolean
+     */
+    private static Boolean nil(XMLStreamReader reader) {
+        boolean nil = false;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            if (!XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(reader.getAttributeNamespace(i))
+                    || !XSI_NIL.equals(reader.getAttributeLocalName(i))) {
+                return null;
+            }
+            switch (reader.getAttributeValue(i).trim()) {
+                case "true", "1" -> nil = true;
+                case "false", "0" -> nil = false;
+                default -> {
+                    return null;
+                }
+            }
+        }
+        return nil;
+    }
+
+    record Key(String envelope, String operation, String value) {
+    }
+
+    /**
+     * Stores the response of a cache miss once it has been written completely
+     */
+    public static class Capture extends AbstractPhaseInterceptor<Message> {
+
+        private final ResponseCache cache;
+
+        public Capture(ResponseCache cache) {
+            super(Phase.PRE_STREAM);
+            addBefore(ResponseTemplateInterceptor.class.getName());
+            addBefore(StaxOutInterceptor.class.getName());
+            addBefore(AttachmentOutInterceptor.class.getName());
+            this.cache = cache;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            Exchange exchange = message.getExchange();
+            Key key = exchange == null ? null : exchange.get(Key.class);
+            OutputStream out = message.getContent(OutputStream.class);
+            if (key == null || out == null) {
+                return;
+            }
+            message.setContent(OutputStream.class, new CapturingOutputStream(out, message, key.value(), cache));
+        }
+    }
+
+    private static final class CapturingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final Message message;
+        private final String key;
+        private final ResponseCache cache;
+        private ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+
+        CapturingOutputStream(OutputStream out, Message message, String key, ResponseCache cache) {
+            this.out = out;
+            this.message = message;
+            this.key = key;
+            this.cache = cache;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (body != null) {
+                body.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (body != null) {
+                body.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+            if (body != null && message.getContent(Exception.class) == null) {
+                cache.put(key, body.toByteArray());
+            }
+            body = null;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Set;
+
+/**
+ * CXF feature that answers the fixed-shape operations from precompiled response templates
+ */
+@ApplicationScoped
+@Named("responseTemplateFeature")
+public class ResponseTemplateFeature extends AbstractFeature {
+
+    private final boolean templatesEnabled;
+    private final Set<String> operations;
+    private final ServerTimeCache serverTimeCache;
+
+    @Inject
+    public ResponseTemplateFeature(
+            @ConfigProperty(name = "soap.response-templates.enabled", defaultValue = "true") boolean templatesEnabled,
+            @ConfigProperty(name = "soap.response-templates.operations", defaultValue = "sayHello,getServerTime,echo") Set<String> operations,
+            ServerTimeCache serverTimeCache) {
+        this.templatesEnabled = templatesEnabled;
+        this.operations = operations;
+        this.serverTimeCache = serverTimeCache;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (templatesEnabled) {
+            ResponseTemplates templates = ResponseTemplates.load(operations);
+            provider.getOutInterceptors().add(new ResponseTemplateInterceptor.Capture(templates));
+            provider.getOutInterceptors().add(new ResponseTemplateInterceptor(templates, serverTimeCache));
+        }
+    }
+}
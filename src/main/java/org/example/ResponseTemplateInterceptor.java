@@ -0,0 +1,110 @@
+package org.example;
+
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Writes string responses of template-backed operations from pre-rendered envelope bytes,
+ * skipping JAXB marshalling and the rest of the out-interceptor chain.
+ *
+ * The return value is captured in SETUP, before the JAX-WS wrapper interceptor replaces it with the
+ * response wrapper bean, and written in PRE_STREAM, once the transport output stream is available.
+ *
+ * Everything placed before StaxOutInterceptor still runs: the output stream wrappers of gzip (PREPARE_SEND),
+ * operation metrics, the message log and the response cache see the template bytes like any other
+ * response. The chain is aborted after the write, so these are bypassed for template responses:
+ * - AttachmentOutInterceptor, so no MTOM package is written; template operations return no binary
+ * - StaxOutInterceptor, so no XMLStreamWriter is created
+ * - SoapOutInterceptor in WRITE, so SOAP headers set by the service or by out interceptors are not
+ *   written; template operations set none
+ * - WrappedOutInterceptor and BareOutInterceptor in MARSHAL, the JAXB marshalling itself
+ * - any interceptor added in a phase after PRE_STREAM
+ * - MessageSenderEndingInterceptor, whose job of closing the conduit is done here instead, so
+ *   transports that deliver the response on close (the local transport of the warm-up) still do
+ */
+public class ResponseTemplateInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    static final String TEMPLATE_VALUE = ResponseTemplateInterceptor.class.getName() + ".value";
+
+    private final ResponseTemplates templates;
+    private final ServerTimeCache serverTimeCache;
+
+    public ResponseTemplateInterceptor(ResponseTemplates templates, ServerTimeCache serverTimeCache) {
+        super(Phase.PRE_STREAM);
+        addBefore(StaxOutInterceptor.class.getName());
+        this.templates = templates;
+        this.serverTimeCache = serverTimeCache;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        String value = (String) message.get(TEMPLATE_VALUE);
+        OutputStream out = message.getContent(OutputStream.class);
+        if (value == null || out == null) {
+            return;
+        }
+        try {
+            String operation = operationName(message.getExchange());
+            // The cached server time comes with its bytes already encoded
+            byte[] encoded = serverTimeCache == null ? null : serverTimeCache.encoded(value);
+            if (encoded != null) {
+                templates.write(operation, encoded, out);
+            } else {
+                templates.write(operation, value, out);
+            }
+            out.flush();
+            // Closes the output stream and completes the exchange on the transport
+            MessageSenderInterceptor.getConduit(message).close(message);
+        } catch (IOException e) {
+            throw new Fault(e);
+        }
+        message.getInterceptorChain().abort();
+    }
+
+    static String operationName(Exchange exchange) {
+        BindingOperationInfo operation = exchange == null ? null : exchange.getBindingOperationInfo();
+        return operation == null ? null : operation.getName().getLocalPart();
+    }
+
+    /**
+     * Captures the String return value of template-backed operations
+     */
+    public static class Capture extends AbstractPhaseInterceptor<Message> {
+
+        private final ResponseTemplates templates;
+
+        public Capture(ResponseTemplates templates) {
+            super(Phase.SETUP);
+            this.templates = templates;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            if (MessageUtils.isRequestor(message) || !(message instanceof SoapMessage soapMessage)
+                    || !ResponseTemplates.SOAP_NAMESPACE.equals(soapMessage.getVersion().getNamespace())) {
+                return;
+            }
+            String operation = operationName(message.getExchange());
+            if (operation == null || !templates.supports(operation)) {
+                return;
+            }
+            List<?> contents = message.getContent(List.class);
+            // A null return has no element at all, leave that to JAXB
+            if (contents != null && contents.size() == 1 && contents.get(0) instanceof String value) {
+                message.put(TEMPLATE_VALUE, value);
+            }
+        }
+    }
+}
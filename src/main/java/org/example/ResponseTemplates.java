@@ -0,0 +1,161 @@
+package org.example;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Pre-rendered SOAP 1.1 response envelopes for operations that return a single string.
+ *
+ * The templates are derived from the *Response elements of HelloWorldService_schema1.xsd at startup,
+ * so every response is written as prefix bytes, the escaped value and suffix bytes.
+ */
+public final class ResponseTemplates {
+
+    static final String SCHEMA = "HelloWorldService_schema1.xsd";
+    static final String SOAP_NAMESPACE = "http://schemas.xmlsoap.org/soap/envelope/";
+
+    private static final String XSD_NAMESPACE = XMLConstants.W3C_XML_SCHEMA_NS_URI;
+    private static final String RESPONSE_SUFFIX = "Response";
+
+    private final Map<String, Template> templates;
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    private ResponseTemplates(Map<String, Template> templates) {
+        this.templates = Map.copyOf(templates);
+    }
+
+    /**
+     * Build templates for the given operations from the service schema on the classpath
+     */
+    public static ResponseTemplates load(Set<String> operations) {
+        try (InputStream is = ResponseTemplates.class.getClassLoader().getResourceAsStream(SCHEMA)) {
+            if (is == null) {
+                throw new IllegalStateException("Schema not found on the classpath: " + SCHEMA);
+            }
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            Document schema = factory.newDocumentBuilder().parse(is);
+            return new ResponseTemplates(parse(schema, operations));
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot build response templates from " + SCHEMA, e);
+        }
+    }
+
+    private static Map<String, Template> parse(Document schema, Set<String> operations) {
+        Element root = schema.getDocumentElement();
+        String targetNamespace = root.getAttribute("targetNamespace");
+
+        Map<String, Element> complexTypes = new HashMap<>();
+        for (Element type : children(root, "complexType")) {
+            complexTypes.put(type.getAttribute("name"), type);
+        }
+
+        Map<String, Template> templates = new HashMap<>();
+        for (Element element : children(root, "element")) {
+            String name = element.getAttribute("name");
+            if (!name.endsWith(RESPONSE_SUFFIX)) {
+                continue;
+            }
+            String operation = name.substring(0, name.length() - RESPONSE_SUFFIX.length());
+            if (!operations.contains(operation)) {
+                continue;
+            }
+            String typeName = element.getAttribute("type");
+            Element type = complexTypes.get(typeName.substring(typeName.indexOf(':') + 1));
+            String returnElement = singleStringElement(type);
+            if (returnElement != null) {
+                templates.put(operation, new Template(name, targetNamespace, returnElement));
+            }
+        }
+        return templates;
+    }
+
+    /**
+     * Name of the only child element when the type is a sequence of exactly one xs:string, else null
+     */
+    private static String singleStringElement(Element type) {
+        if (type == null) {
+            return null;
+        }
+        for (Element sequence : children(type, "sequence")) {
+            List<Element> elements = children(sequence, "element");
+            if (elements.size() == 1 && elements.get(0).getAttribute("type").endsWith(":string")
+                    && !"unbounded".equals(elements.get(0).getAttribute("maxOccurs"))) {
+                return elements.get(0).getAttribute("name");
+            }
+        }
+        return null;
+    }
+
+    private static List<Element> children(Element parent, String localName) {
+        List<Element> result = new ArrayList<>();
+        NodeList nodes = parent.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node node = nodes.item(i);
+            if (node instanceof Element child && XSD_NAMESPACE.equals(child.getNamespaceURI())
+                    && localName.equals(child.getLocalName())) {
+                result.add(child);
+            }
+        }
+        return result;
+    }
+
+    public boolean supports(String operation) {
+        return templates.containsKey(operation);
+    }
+
+    /**
+     * Write the full response envelope of the operation with value spliced in. The envelope is assembled
+     * in the thread's scratch buffer and reaches the output stream in one write unless it is larger.
+     */
+    public void write(String operation, CharSequence value, OutputStream out) throws IOException {
+        Template template = templates.get(operation);
+        byte[] buffer = scratch.get();
+        int pos = XmlEscaper.appendRaw(template.prefix, out, buffer, 0);
+        pos = XmlEscaper.appendEscaped(value, out, buffer, pos);
+        pos = XmlEscaper.appendRaw(template.suffix, out, buffer, pos);
+        out.write(buffer, 0, pos);
+    }
+
+    /**
+     * Write the full response envelope of the operation around already escaped UTF-8 bytes
+     */
+    public void write(String operation, byte[] escapedValue, OutputStream out) throws IOException {
+        Template template = templates.get(operation);
+        byte[] buffer = scratch.get();
+        int pos = XmlEscaper.appendRaw(template.prefix, out, buffer, 0);
+        pos = XmlEscaper.appendRaw(escapedValue, out, buffer, pos);
+        pos = XmlEscaper.appendRaw(template.suffix, out, buffer, pos);
+        out.write(buffer, 0, pos);
+    }
+
+    private static final class Template {
+        final byte[] prefix;
+        final byte[] suffix;
+
+        Template(String responseElement, String namespace, String returnElement) {
+            this.prefix = ("<soap:Envelope xmlns:soap=\"" + SOAP_NAMESPACE + "\"><soap:Body>"
+                + "<ns2:" + responseElement + " xmlns:ns2=\"" + namespace + "\">"
+                + "<" + returnElement + ">").getBytes(StandardCharsets.UTF_8);
+            this.suffix = ("</" + returnElement + "></ns2:" + responseElement + "></soap:Body></soap:Envelope>")
+                .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
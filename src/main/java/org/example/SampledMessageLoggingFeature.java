@@ -0,0 +1,65 @@
+package org.example;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+
+/**
+ * CXF feature logging a sample of SOAP exchanges, plus every fault and slow call, off the request thread.
+ * Replaces DEBUG-level CXF logging; set the org.example.MessageLog category above INFO to switch it off.
+ */
+@ApplicationScoped
+@Named("messageLoggingFeature")
+public class SampledMessageLoggingFeature extends AbstractFeature {
+
+    private final boolean loggingEnabled;
+    private final double sampleRate;
+    private final Duration slowThreshold;
+    private final int maxBodySize;
+    private final int queueSize;
+    private final MeterRegistry registry;
+    private MessageLog log;
+
+    @Inject
+    public SampledMessageLoggingFeature(
+            @ConfigProperty(name = "soap.message-logging.enabled", defaultValue = "true") boolean loggingEnabled,
+            @ConfigProperty(name = "soap.message-logging.sample-rate", defaultValue = "0.01") double sampleRate,
+            @ConfigProperty(name = "soap.message-logging.slow-threshold", defaultValue = "500ms") Duration slowThreshold,
+            @ConfigProperty(name = "soap.message-logging.max-body-size", defaultValue = "4096") int maxBodySize,
+            @ConfigProperty(name = "soap.message-logging.queue-size", defaultValue = "1024") int queueSize,
+            MeterRegistry registry) {
+        this.loggingEnabled = loggingEnabled;
+        this.sampleRate = sampleRate;
+        this.slowThreshold = slowThreshold;
+        this.maxBodySize = maxBodySize;
+        this.queueSize = queueSize;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (loggingEnabled) {
+            log = new MessageLog(queueSize, registry);
+            long slowNanos = slowThreshold.toNanos();
+            SampledMessageLoggingInterceptor out = new SampledMessageLoggingInterceptor(log, slowNanos, false);
+            provider.getInInterceptors().add(new SampledMessageLoggingInterceptor.Receive(sampleRate, maxBodySize, out));
+            provider.getOutInterceptors().add(out);
+            provider.getOutFaultInterceptors().add(new SampledMessageLoggingInterceptor(log, slowNanos, true));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (log != null) {
+            log.close();
+        }
+    }
+}
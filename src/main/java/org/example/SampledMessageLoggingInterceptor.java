@@ -0,0 +1,270 @@
+package org.example;
+
+import org.apache.cxf.interceptor.AttachmentOutInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hands sampled, faulted and slow exchanges to the {@link MessageLog}.
+ *
+ * Whether an exchange is sampled is decided when its request arrives, and only sampled exchanges have
+ * their streams wrapped to capture the first bytes of both bodies: {@link Receive} wraps the request
+ * stream, this interceptor the response stream in PRE_STREAM on the out and out-fault chains, and the
+ * entry is completed when the response is closed. Every other exchange is timed up to the start of its
+ * response and, when it faulted or was slow, logged without bodies. Nothing is formatted on the request
+ * thread.
+ *
+ * Streamed echoes and response cache hits write their response themselves and abort the chain before the
+ * out interceptors run; they complete their entry through {@link #answered}, after the response is written.
+ */
+public class SampledMessageLoggingInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private final MessageLog log;
+    private final long slowThresholdNanos;
+    private final boolean faultChain;
+
+    public SampledMessageLoggingInterceptor(MessageLog log, long slowThresholdNanos, boolean faultChain) {
+        super(Phase.PRE_STREAM);
+        addBefore(ResponseTemplateInterceptor.class.getName());
+        addBefore(StaxOutInterceptor.class.getName());
+        addBefore(AttachmentOutInterceptor.class.getName());
+        this.log = log;
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.faultChain = faultChain;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        Exchange exchange = message.getExchange();
+        Capture capture = exchange == null ? null : exchange.get(Capture.class);
+        OutputStream out = message.getContent(OutputStream.class);
+        if (capture == null || out == null || capture.done) {
+            return;
+        }
+        capture.fault |= faultChain;
+        capture.operation = ResponseTemplateInterceptor.operationName(exchange);
+        if (capture.sampled) {
+            message.setContent(OutputStream.class, new CapturingOutputStream(out, capture, this));
+        } else {
+            complete(capture);
+        }
+    }
+
+    /**
+     * Complete the entry of an exchange answered by an interceptor that aborts the chain
+     * @param response the response body, or null when it was streamed and not captured
+     */
+    static void answered(Message message, String operation, byte[] response) {
+        Exchange exchange = message.getExchange();
+        Capture capture = exchange == null ? null : exchange.get(Capture.class);
+        if (capture == null || capture.done) {
+            return;
+        }
+        capture.operation = operation;
+        if (capture.sampled) {
+            if (response == null) {
+                capture.streamed = true;
+            } else {
+                capture.response.append(response, 0, response.length);
+            }
+        }
+        capture.owner.complete(capture);
+    }
+
+    private void complete(Capture capture) {
+        if (capture.done) {
+            return;
+        }
+        capture.done = true;
+        long duration = System.nanoTime() - capture.start;
+        String reason = capture.fault ? "fault"
+            : duration >= slowThresholdNanos ? "slow"
+            : capture.sampled ? "sampled"
+            : null;
+        if (reason == null) {
+            return;
+        }
+        String operation = capture.operation == null ? SoapMetrics.UNKNOWN_OPERATION : capture.operation;
+        log.offer(capture.sampled
+            ? new MessageLog.Entry(operation, reason, duration,
+                capture.request.bytes(), capture.request.size,
+                capture.streamed ? null : capture.response.bytes(), capture.response.size)
+            : new MessageLog.Entry(operation, reason, duration, null, -1, null, -1));
+    }
+
+    /**
+     * Starts capturing an incoming request and decides whether it is sampled
+     */
+    public static class Receive extends AbstractPhaseInterceptor<Message> {
+
+        private final double sampleRate;
+        private final int maxBodySize;
+        private final SampledMessageLoggingInterceptor owner;
+
+        /**
+         * @param owner completes the entries of exchanges answered before the out chain
+         */
+        public Receive(double sampleRate, int maxBodySize, SampledMessageLoggingInterceptor owner) {
+            super(Phase.RECEIVE);
+            this.sampleRate = sampleRate;
+            this.maxBodySize = maxBodySize;
+            this.owner = owner;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            if (MessageUtils.isRequestor(message) || message.getExchange() == null || !MessageLog.enabled()
+                    || StartupWarmup.isWarmup(message)) {
+                return;
+            }
+            boolean sampled = sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+            Capture capture = new Capture(sampled, maxBodySize, owner);
+            message.getExchange().put(Capture.class, capture);
+            InputStream in = message.getContent(InputStream.class);
+            if (sampled && in != null) {
+                message.setContent(InputStream.class, new CapturingInputStream(in, capture.request));
+            }
+        }
+    }
+
+    static final class Capture {
+
+        final long start = System.nanoTime();
+        final boolean sampled;
+        final Body request;
+        final Body response;
+        final SampledMessageLoggingInterceptor owner;
+        String operation;
+        boolean fault;
+        boolean streamed;
+        boolean done;
+
+        Capture(boolean sampled, int maxBodySize, SampledMessageLoggingInterceptor owner) {
+            this.sampled = sampled;
+            this.owner = owner;
+            this.request = sampled ? new Body(maxBodySize) : null;
+            this.response = sampled ? new Body(maxBodySize) : null;
+        }
+    }
+
+    /**
+     * The first limit bytes of a body and its total size
+     */
+    static final class Body {
+
+        private final int limit;
+        private byte[] buffer = new byte[0];
+        private int length;
+        int size;
+
+        Body(int limit) {
+            this.limit = limit;
+        }
+
+        void append(byte[] b, int off, int len) {
+            size += len;
+            int take = Math.min(len, limit - length);
+            if (take <= 0) {
+                return;
+            }
+            if (length + take > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(length + take, buffer.length * 2)));
+            }
+            System.arraycopy(b, off, buffer, length, take);
+            length += take;
+        }
+
+        void append(int b) {
+            size++;
+            if (length < limit) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(16, buffer.length * 2)));
+                }
+                buffer[length++] = (byte) b;
+            }
+        }
+
+        byte[] bytes() {
+            return Arrays.copyOf(buffer, length);
+        }
+    }
+
+    private static final class CapturingInputStream extends FilterInputStream {
+
+        private final Body body;
+
+        CapturingInputStream(InputStream in, Body body) {
+            super(in);
+            this.body = body;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                body.append(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                body.append(b, off, n);
+            }
+            return n;
+        }
+    }
+
+    private static final class CapturingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final Capture capture;
+        private final SampledMessageLoggingInterceptor owner;
+
+        CapturingOutputStream(OutputStream out, Capture capture, SampledMessageLoggingInterceptor owner) {
+            this.out = out;
+            this.capture = capture;
+            this.owner = owner;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            capture.response.append(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            capture.response.append(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } finally {
+                owner.complete(capture);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package org.example;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * CXF feature that bounds what the request parser accepts and, when enabled, validates request
+ * payloads against the service schema with a validator compiled once at startup
+ */
+@ApplicationScoped
+@Named("schemaValidationFeature")
+public class SchemaValidationFeature extends AbstractFeature {
+
+    private final boolean validationEnabled;
+    private final int maxElementDepth;
+    private final int maxStringLength;
+    private final long maxBodySize;
+
+    @Inject
+    public SchemaValidationFeature(
+            @ConfigProperty(name = "soap.validation.enabled", defaultValue = "false") boolean validationEnabled,
+            @ConfigProperty(name = "soap.validation.max-element-depth", defaultValue = "64") int maxElementDepth,
+            @ConfigProperty(name = "soap.validation.max-string-length", defaultValue = "16777216") int maxStringLength,
+            @ConfigProperty(name = "soap.validation.max-body-size", defaultValue = "67108864") long maxBodySize) {
+        this.validationEnabled = validationEnabled;
+        this.maxElementDepth = maxElementDepth;
+        this.maxStringLength = maxStringLength;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        provider.getInInterceptors().add(new SchemaValidationInterceptor.Limits(maxElementDepth, maxStringLength, maxBodySize));
+        if (validationEnabled) {
+            provider.getInInterceptors().add(new SchemaValidationInterceptor(SchemaValidator.load()));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package org.example;
+
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
+import org.apache.cxf.binding.soap.interceptor.StartBodyInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.staxutils.StaxUtils;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.util.Locale;
+
+/**
+ * Validates the request payload against the service schema while JAXB unmarshals it.
+ *
+ * Runs in READ once the SOAP headers are read and the reader is on the operation element, after the
+ * streaming echo interceptor, so echoes large enough to stream are copied through without being
+ * validated. The Envelope and Body are never wrapped: they are not in the service schema. MTOM
+ * requests are left alone as well: their binary content is an xop:Include element that the schema
+ * does not allow.
+ */
+public class SchemaValidationInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private final SchemaValidator validator;
+
+    public SchemaValidationInterceptor(SchemaValidator validator) {
+        super(Phase.READ);
+        addAfter(ReadHeadersInterceptor.class.getName());
+        addAfter(StartBodyInterceptor.class.getName());
+        addAfter(StreamingEchoInterceptor.class.getName());
+        this.validator = validator;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        if (MessageUtils.isRequestor(message) || !(message instanceof SoapMessage) || isMultipart(message)) {
+            return;
+        }
+        XMLStreamReader reader = message.getContent(XMLStreamReader.class);
+        if (reader == null) {
+            return;
+        }
+        try {
+            skipIgnorable(reader);
+            if (!reader.isStartElement() || isSoapElement((SoapMessage) message, reader.getName())) {
+                return;
+            }
+            message.setContent(XMLStreamReader.class, validator.validating(reader));
+        } catch (XMLStreamException e) {
+            throw new Fault(e);
+        }
+    }
+
+    /**
+     * StartBodyInterceptor leaves the reader on the whitespace before the operation element, if any
+     */
+    static void skipIgnorable(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.isWhiteSpace() || reader.getEventType() == XMLStreamConstants.COMMENT
+                || reader.getEventType() == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+            reader.next();
+        }
+    }
+
+    private static boolean isSoapElement(SoapMessage message, QName name) {
+        return message.getVersion().getEnvelope().equals(name) || message.getVersion().getBody().equals(name);
+    }
+
+    private static boolean isMultipart(Message message) {
+        String contentType = (String) message.get(Message.CONTENT_TYPE);
+        return contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("multipart/");
+    }
+
+    /**
+     * Sets the StAX limits on the request before its reader is created, so the parser itself stops at
+     * the first element too deep, text too long or document too large instead of buffering it
+     */
+    public static class Limits extends AbstractPhaseInterceptor<Message> {
+
+        private final int maxElementDepth;
+        private final int maxStringLength;
+        private final long maxBodySize;
+
+        public Limits(int maxElementDepth, int maxStringLength, long maxBodySize) {
+            super(Phase.RECEIVE);
+            this.maxElementDepth = maxElementDepth;
+            this.maxStringLength = maxStringLength;
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            if (MessageUtils.isRequestor(message)) {
+                return;
+            }
+            message.put(StaxUtils.MAX_ELEMENT_DEPTH, maxElementDepth);
+            message.put(StaxUtils.MAX_TEXT_LENGTH, maxStringLength);
+            message.put(StaxUtils.MAX_XML_CHARACTERS, maxBodySize);
+        }
+    }
+}
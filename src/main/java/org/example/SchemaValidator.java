@@ -0,0 +1,240 @@
+package org.example;
+
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.interceptor.Fault;
+import org.w3c.dom.TypeInfo;
+import org.xml.sax.Attributes;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.ValidatorHandler;
+import java.net.URL;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Validates request payloads against HelloWorldService_schema1.xsd while they are being parsed.
+ *
+ * The schema is compiled once; the compiled {@link Schema} is thread-safe and hands out validator
+ * handlers, which are not, so idle handlers are kept in a small pool and reused across requests.
+ * {@link #validating(XMLStreamReader)} wraps the request reader so that every event the unmarshaller
+ * pulls is passed on to a handler as well: the payload is validated in the same pass that reads it,
+ * without a DOM or a second parse. The validator only objects to a child of a simple-typed element once
+ * that element ends, after the unmarshaller has already choked on the child, so that case is checked
+ * when the child starts.
+ */
+public class SchemaValidator {
+
+    private static final int POOL_SIZE = 64;
+
+    private final Schema schema;
+    private final BlockingQueue<ValidatorHandler> idle = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    SchemaValidator(Schema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Compile the service schema from the classpath
+     */
+    public static SchemaValidator load() {
+        URL url = SchemaValidator.class.getClassLoader().getResource(ResponseTemplates.SCHEMA);
+        if (url == null) {
+            throw new IllegalStateException("Schema not found on the classpath: " + ResponseTemplates.SCHEMA);
+        }
+        try {
+            return new SchemaValidator(SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(url));
+        } catch (SAXException e) {
+            throw new IllegalStateException("Cannot compile " + ResponseTemplates.SCHEMA, e);
+        }
+    }
+
+    /**
+     * Wrap a reader positioned on the start element of a payload; the payload is validated as it is read
+     * and the first violation is thrown from the read that reaches it as a Client fault
+     */
+    public XMLStreamReader validating(XMLStreamReader reader) throws XMLStreamException {
+        ValidatorHandler handler = idle.poll();
+        return new ValidatingReader(reader, handler != null ? handler : schema.newValidatorHandler());
+    }
+
+    private void release(ValidatorHandler handler) {
+        idle.offer(handler);
+    }
+
+    /**
+     * Passes the events of one payload element to a validator handler as they are read
+     */
+    private final class ValidatingReader extends StreamReaderDelegate implements ErrorHandler {
+
+        private final AttributesImpl attributes = new AttributesImpl();
+        private ValidatorHandler handler;
+        private int depth;
+        /** Depth and name of the outermost open element of a simple type, 0 if there is none */
+        private int simpleDepth;
+        private String simpleElement;
+        private boolean startedSimple;
+
+        ValidatingReader(XMLStreamReader reader, ValidatorHandler handler) throws XMLStreamException {
+            super(reader);
+            this.handler = handler;
+            handler.setErrorHandler(this);
+            handler.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    TypeInfo type = ValidatingReader.this.handler.getTypeInfoProvider().getElementTypeInfo();
+                    startedSimple = type != null && type.isDerivedFrom(
+                        XMLConstants.W3C_XML_SCHEMA_NS_URI, "anySimpleType", TypeInfo.DERIVATION_RESTRICTION);
+                }
+            });
+            try {
+                handler.startDocument();
+            } catch (SAXException e) {
+                throw fault(e);
+            }
+            forward(reader.getEventType());
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            int event = super.next();
+            forward(event);
+            return event;
+        }
+
+        @Override
+        public int nextTag() throws XMLStreamException {
+            int event = next();
+            while ((event == XMLStreamConstants.CHARACTERS && isWhiteSpace())
+                    || (event == XMLStreamConstants.CDATA && isWhiteSpace())
+                    || event == XMLStreamConstants.SPACE
+                    || event == XMLStreamConstants.COMMENT
+                    || event == XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                event = next();
+            }
+            if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+                throw new XMLStreamException("Expected a start or end tag", getLocation());
+            }
+            return event;
+        }
+
+        @Override
+        public String getElementText() throws XMLStreamException {
+            if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException("Not positioned on a start element", getLocation());
+            }
+            StringBuilder text = new StringBuilder();
+            int event = next();
+            while (event != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                        || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                    text.append(getTextCharacters(), getTextStart(), getTextLength());
+                } else if (event == XMLStreamConstants.START_ELEMENT) {
+                    throw new XMLStreamException("Element text only expected", getLocation());
+                } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                    throw new XMLStreamException("Unexpected end of document", getLocation());
+                }
+                event = next();
+            }
+            return text.toString();
+        }
+
+        /**
+         * Hand the current event to the validator, until the payload element is complete
+         */
+        private void forward(int event) {
+            if (handler == null) {
+                return;
+            }
+            try {
+                switch (event) {
+                    case XMLStreamConstants.START_ELEMENT -> startElement();
+                    case XMLStreamConstants.END_ELEMENT -> endElement();
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+                        handler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    default -> {
+                    }
+                }
+            } catch (SAXException e) {
+                ValidatorHandler failed = handler;
+                handler = null;
+                release(failed);
+                throw fault(e);
+            }
+        }
+
+        private void startElement() throws SAXException {
+            if (simpleDepth != 0) {
+                throw new SAXException("cvc-type.3.1.2: Element '" + simpleElement
+                    + "' is a simple type, so it must have no element information item [children].");
+            }
+            depth++;
+            for (int i = 0; i < getNamespaceCount(); i++) {
+                handler.startPrefixMapping(nonNull(getNamespacePrefix(i)), nonNull(getNamespaceURI(i)));
+            }
+            attributes.clear();
+            for (int i = 0; i < getAttributeCount(); i++) {
+                attributes.addAttribute(nonNull(getAttributeNamespace(i)), getAttributeLocalName(i),
+                    qualifiedName(getAttributePrefix(i), getAttributeLocalName(i)), "CDATA", getAttributeValue(i));
+            }
+            handler.startElement(nonNull(getNamespaceURI()), getLocalName(),
+                qualifiedName(getPrefix(), getLocalName()), attributes);
+            if (startedSimple) {
+                simpleDepth = depth;
+                simpleElement = getLocalName();
+            }
+        }
+
+        private void endElement() throws SAXException {
+            if (depth == simpleDepth) {
+                simpleDepth = 0;
+            }
+            handler.endElement(nonNull(getNamespaceURI()), getLocalName(), qualifiedName(getPrefix(), getLocalName()));
+            for (int i = 0; i < getNamespaceCount(); i++) {
+                handler.endPrefixMapping(nonNull(getNamespacePrefix(i)));
+            }
+            if (--depth == 0) {
+                handler.endDocument();
+                ValidatorHandler done = handler;
+                handler = null;
+                release(done);
+            }
+        }
+
+        @Override
+        public void warning(SAXParseException exception) {
+        }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+    }
+
+    private static Fault fault(SAXException e) {
+        return new SoapFault("Invalid request: " + e.getMessage(), e, Fault.FAULT_CODE_CLIENT);
+    }
+
+    private static String nonNull(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example;
+
+import io.netty.handler.ssl.ApplicationProtocolConfig;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.IdentityCipherSuiteFilter;
+import io.netty.handler.ssl.JdkSslContext;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslProvider;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import io.vertx.core.spi.tls.DefaultSslContextFactory;
+import io.vertx.core.spi.tls.SslContextFactory;
+
+import javax.net.ssl.SSLException;
+import javax.net.ssl.TrustManagerFactory;
+import java.util.List;
+
+/**
+ * JDK SSL engine options for the HTTPS listener that route server contexts through {@link ServerTlsCustomizer}
+ *
+ * Vert.x still builds the context from the Quarkus key and trust material; the result is then wrapped
+ * with the configured session cache and handshake instrumentation.
+ */
+class ServerSslEngineOptions extends JdkSSLEngineOptions {
+
+    private final ServerTlsCustomizer tls;
+
+    ServerSslEngineOptions(ServerTlsCustomizer tls) {
+        this.tls = tls;
+    }
+
+    private ServerSslEngineOptions(ServerSslEngineOptions other) {
+        super(other);
+        this.tls = other.tls;
+    }
+
+    @Override
+    public ServerSslEngineOptions copy() {
+        return new ServerSslEngineOptions(this);
+    }
+
+    @Override
+    public SslContextFactory sslContextFactory() {
+        return new Factory(tls);
+    }
+
+    private static final class Factory extends DefaultSslContextFactory {
+
+        private final ServerTlsCustomizer tls;
+        private boolean forClient;
+        private boolean useAlpn;
+        private List<String> applicationProtocols = List.of();
+        private ClientAuth clientAuth = ClientAuth.NONE;
+
+        Factory(ServerTlsCustomizer tls) {
+            // Same arguments as JdkSSLEngineOptions; the JDK session cache is configured separately
+            super(SslProvider.JDK, false);
+            this.tls = tls;
+        }
+
+        @Override
+        public SslContextFactory forClient(boolean forClient) {
+            this.forClient = forClient;
+            return super.forClient(forClient);
+        }
+
+        @Override
+        public SslContextFactory clientAuth(ClientAuth clientAuth) {
+            this.clientAuth = clientAuth;
+            return super.clientAuth(clientAuth);
+        }
+
+        @Override
+        public SslContextFactory useAlpn(boolean useAlpn) {
+            this.useAlpn = useAlpn;
+            return super.useAlpn(useAlpn);
+        }
+
+        @Override
+        public SslContextFactory applicationProtocols(List<String> applicationProtocols) {
+            this.applicationProtocols = applicationProtocols;
+            return super.applicationProtocols(applicationProtocols);
+        }
+
+        @Override
+        public SslContextFactory trustManagerFactory(TrustManagerFactory factory) {
+            return super.trustManagerFactory(factory == null ? null : tls.trustManagers(factory));
+        }
+
+        @Override
+        public SslContext create() throws SSLException {
+            SslContext context = super.create();
+            if (forClient || !(context instanceof JdkSslContext jdk)) {
+                return context;
+            }
+            return new JdkSslContext(tls.serverContext(jdk.context()), false, jdk.cipherSuites(),
+                IdentityCipherSuiteFilter.INSTANCE, alpn(), clientAuth, null, false);
+        }
+
+        /**
+         * The ALPN setup Vert.x gives its own server contexts, so h2 is still negotiated
+         */
+        private ApplicationProtocolConfig alpn() {
+            if (!useAlpn || applicationProtocols == null || applicationProtocols.isEmpty()) {
+                return ApplicationProtocolConfig.DISABLED;
+            }
+            return new ApplicationProtocolConfig(ApplicationProtocolConfig.Protocol.ALPN,
+                ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                applicationProtocols);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example;
+
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Clock-tick cache for the getServerTime response.
+ *
+ * The "Current server time: ..." string and its escaped UTF-8 bytes are formatted once per time
+ * slice by the scheduler, so callers within the same slice get the cached value without allocating.
+ * If the scheduler falls behind, the first caller of a new slice formats it instead.
+ */
+@ApplicationScoped
+public class ServerTimeCache {
+
+    static final String PREFIX = "Current server time: ";
+
+    private final DateTimeFormatter formatter;
+    private final long sliceMillis;
+    private final Clock clock;
+    private volatile Snapshot current;
+
+    @Inject
+    public ServerTimeCache(
+            @ConfigProperty(name = "soap.server-time.pattern", defaultValue = "yyyy-MM-dd HH:mm:ss") String pattern,
+            @ConfigProperty(name = "soap.server-time.refresh-interval", defaultValue = "1s") Duration refreshInterval) {
+        this(pattern, refreshInterval, Clock.systemDefaultZone());
+    }
+
+    public ServerTimeCache(String pattern, Duration refreshInterval, Clock clock) {
+        this.formatter = DateTimeFormatter.ofPattern(pattern);
+        this.sliceMillis = Math.max(1, refreshInterval.toMillis());
+        this.clock = clock;
+        this.current = format(clock.millis());
+    }
+
+    @Scheduled(every = "${soap.server-time.refresh-interval:1s}", identity = "server-time-cache")
+    void refresh() {
+        long now = clock.millis();
+        if (now >= current.validUntil) {
+            current = format(now);
+        }
+    }
+
+    /**
+     * The current "Current server time: ..." response text
+     */
+    public String current() {
+        return snapshot().text;
+    }
+
+    /**
+     * Escaped UTF-8 bytes of value if it is the cached response text, otherwise null
+     */
+    public byte[] encoded(String value) {
+        Snapshot snapshot = current;
+        return snapshot.text == value ? snapshot.bytes : null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        long now = clock.millis();
+        if (now >= snapshot.validUntil || now < snapshot.validFrom) {
+            snapshot = format(now);
+            current = snapshot;
+        }
+        return snapshot;
+    }
+
+    private Snapshot format(long now) {
+        long sliceStart = now - Math.floorMod(now, sliceMillis);
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(sliceStart), clock.getZone());
+        String text = PREFIX + time.format(formatter);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(text.length() + 8);
+        try {
+            XmlEscaper.writeEscaped(text, bytes, new byte[64]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Snapshot(text, bytes.toByteArray(), sliceStart, sliceStart + sliceMillis);
+    }
+
+    private record Snapshot(String text, byte[] bytes, long validFrom, long validUntil) {
+    }
+}
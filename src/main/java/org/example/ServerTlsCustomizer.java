@@ -0,0 +1,65 @@
+package org.example;
+
+import io.quarkus.vertx.http.HttpServerOptionsCustomizer;
+import io.vertx.core.http.HttpServerOptions;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.time.Duration;
+
+/**
+ * Tunes the mTLS listener: sizes the server session cache so clients can resume sessions
+ * instead of repeating the full handshake, counts full vs resumed handshakes, and caches
+ * validated client certificate chains. When Vert.x rebuilds the context for new key and trust
+ * material ({@link TlsMaterialReloader}), the new context goes through the same steps.
+ */
+@ApplicationScoped
+public class ServerTlsCustomizer implements HttpServerOptionsCustomizer {
+
+    private final int sessionCacheSize;
+    private final Duration sessionTimeout;
+    private final TlsHandshakeMetrics metrics;
+    private final ClientCertificateCache certificateCache;
+
+    @Inject
+    public ServerTlsCustomizer(
+            @ConfigProperty(name = "soap.tls.session-cache-size", defaultValue = "20480") int sessionCacheSize,
+            @ConfigProperty(name = "soap.tls.session-timeout", defaultValue = "24h") Duration sessionTimeout,
+            TlsHandshakeMetrics metrics,
+            ClientCertificateCache certificateCache) {
+        this.sessionCacheSize = sessionCacheSize;
+        this.sessionTimeout = sessionTimeout;
+        this.metrics = metrics;
+        this.certificateCache = certificateCache;
+    }
+
+    @Override
+    public void customizeHttpsServer(HttpServerOptions options) {
+        options.setSslEngineOptions(new ServerSslEngineOptions(this));
+    }
+
+    /**
+     * Trust material for a server context that is being (re)built
+     */
+    TrustManagerFactory trustManagers(TrustManagerFactory factory) {
+        return certificateCache.trustManagers(factory);
+    }
+
+    /**
+     * Applies the session cache settings to a server context built by Vert.x and instruments its engines
+     */
+    SSLContext serverContext(SSLContext context) {
+        return new InstrumentedSslContext(configure(context), metrics);
+    }
+
+    private SSLContext configure(SSLContext context) {
+        SSLSessionContext sessions = context.getServerSessionContext();
+        sessions.setSessionCacheSize(sessionCacheSize);
+        sessions.setSessionTimeout((int) sessionTimeout.toSeconds());
+        return context;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Minimal SOAP fault responses for requests rejected by HTTP filters before they reach CXF.
+ *
+ * The fault text is fixed by the caller and never contains request data, so it is not escaped.
+ */
+final class SoapFaultResponse {
+
+    private static final String SOAP11_FAULT = """
+        <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/"><soap:Body><soap:Fault>\
+        <faultcode>soap:%s</faultcode><faultstring>%s</faultstring>\
+        </soap:Fault></soap:Body></soap:Envelope>""";
+
+    private static final String SOAP12_FAULT = """
+        <env:Envelope xmlns:env="http://www.w3.org/2003/05/soap-envelope"><env:Body><env:Fault>\
+        <env:Code><env:Value>env:%s</env:Value></env:Code>\
+        <env:Reason><env:Text xml:lang="en">%s</env:Text></env:Reason>\
+        </env:Fault></env:Body></env:Envelope>""";
+
+    private SoapFaultResponse() {
+    }
+
+    static boolean isSoap12(RoutingContext context) {
+        String contentType = context.request().getHeader(HttpHeaders.CONTENT_TYPE);
+        return contentType != null && contentType.startsWith("application/soap+xml");
+    }
+
+    /**
+     * End the request with a fault in the SOAP version of the request
+     * @param clientFault true for a Client (1.1) / Sender (1.2) fault, false for Server / Receiver
+     * @param retryAfterSeconds value of the Retry-After header, none when 0
+     */
+    static void send(RoutingContext context, int status, boolean clientFault, String reason, long retryAfterSeconds) {
+        boolean soap12 = isSoap12(context);
+        String code = soap12 ? (clientFault ? "Sender" : "Receiver") : (clientFault ? "Client" : "Server");
+        context.response()
+            .setStatusCode(status)
+            .putHeader(HttpHeaders.CONTENT_TYPE, soap12 ? "application/soap+xml;charset=UTF-8" : "text/xml;charset=UTF-8");
+        if (retryAfterSeconds > 0) {
+            context.response().putHeader("Retry-After", Long.toString(retryAfterSeconds));
+        }
+        context.response().end(String.format(soap12 ? SOAP12_FAULT : SOAP11_FAULT, code, reason));
+    }
+}
@@ -0,0 +1,138 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation Micrometer meters for the SOAP endpoint:
+ *
+ * soap_operation_duration_seconds{operation, phase=parse|invoke|marshal|stream|cache} latency histograms,
+ * soap_operation_request_bytes / soap_operation_response_bytes payload sizes and
+ * soap_operation_faults_total. Meters are looked up once per operation and then reused.
+ */
+public class SoapMetrics {
+
+    static final String UNKNOWN_OPERATION = "unknown";
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Operation> operations = new ConcurrentHashMap<>();
+
+    public SoapMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    Operation operation(String name) {
+        return operations.computeIfAbsent(name == null ? UNKNOWN_OPERATION : name, this::register);
+    }
+
+    private Operation register(String name) {
+        return new Operation(
+            phase(name, "parse"),
+            phase(name, "invoke"),
+            phase(name, "marshal"),
+            phase(name, "stream"),
+            phase(name, "cache"),
+            size(name, "soap.operation.request", "Request payload size"),
+            size(name, "soap.operation.response", "Response payload size"),
+            Counter.builder("soap.operation.faults")
+                .description("SOAP faults returned")
+                .tag("operation", name)
+                .register(registry));
+    }
+
+    private Timer phase(String operation, String phase) {
+        return Timer.builder("soap.operation.duration")
+            .description("Time spent per processing phase of a SOAP operation")
+            .tag("operation", operation)
+            .tag("phase", phase)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private DistributionSummary size(String operation, String name, String description) {
+        return DistributionSummary.builder(name)
+            .description(description)
+            .baseUnit("bytes")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    record Operation(Timer parse, Timer invoke, Timer marshal, Timer stream, Timer cache,
+                     DistributionSummary requestBytes, DistributionSummary responseBytes, Counter faults) {
+
+        void record(Timing timing, long responseBytes, long end) {
+            if (timing.invokeStart != 0) {
+                parse.record(timing.invokeStart - timing.start, TimeUnit.NANOSECONDS);
+                if (timing.invokeEnd != 0) {
+                    invoke.record(timing.invokeEnd - timing.invokeStart, TimeUnit.NANOSECONDS);
+                    marshal.record(end - timing.invokeEnd, TimeUnit.NANOSECONDS);
+                }
+            }
+            requestBytes.record(timing.requestBytes);
+            this.responseBytes.record(responseBytes);
+            if (timing.fault) {
+                faults.increment();
+            }
+        }
+    }
+
+    /**
+     * Phase timestamps of one exchange, in System.nanoTime()
+     */
+    static final class Timing {
+
+        final SoapMetrics metrics;
+        final long start = System.nanoTime();
+        long invokeStart;
+        long invokeEnd;
+        long requestBytes;
+        boolean fault;
+        boolean recorded;
+
+        Timing(SoapMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        /**
+         * Record the exchange once, when its response has been written
+         */
+        void complete(String operation, long responseBytes) {
+            if (!recorded) {
+                recorded = true;
+                metrics.operation(operation).record(this, responseBytes, System.nanoTime());
+            }
+        }
+
+        /**
+         * Record an exchange answered by a streaming fast path, where parse, invoke and marshal overlap
+         */
+        void streamed(String operation) {
+            if (!recorded) {
+                recorded = true;
+                Operation meters = metrics.operation(operation);
+                meters.stream().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                meters.requestBytes().record(requestBytes);
+            }
+        }
+
+        /**
+         * Record an exchange answered from the response cache
+         */
+        void cached(String operation, long responseBytes) {
+            if (!recorded) {
+                recorded = true;
+                Operation meters = metrics.operation(operation);
+                meters.cache().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                meters.requestBytes().record(requestBytes);
+                meters.responseBytes().record(responseBytes);
+            }
+        }
+    }
+}
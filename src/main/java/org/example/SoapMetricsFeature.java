@@ -0,0 +1,42 @@
+package org.example;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * CXF feature recording per-operation latency, payload size and fault metrics,
+ * exported with the other Micrometer meters at /q/metrics
+ */
+@ApplicationScoped
+@Named("soapMetricsFeature")
+public class SoapMetricsFeature extends AbstractFeature {
+
+    private final boolean metricsEnabled;
+    private final MeterRegistry registry;
+
+    @Inject
+    public SoapMetricsFeature(
+            @ConfigProperty(name = "soap.metrics.enabled", defaultValue = "true") boolean metricsEnabled,
+            MeterRegistry registry) {
+        this.metricsEnabled = metricsEnabled;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (metricsEnabled) {
+            SoapMetrics metrics = new SoapMetrics(registry);
+            provider.getInInterceptors().add(new SoapMetricsInterceptor.Receive(metrics));
+            provider.getInInterceptors().add(new SoapMetricsInterceptor.Invoke());
+            provider.getOutInterceptors().add(new SoapMetricsInterceptor.Invoked());
+            provider.getOutInterceptors().add(new SoapMetricsInterceptor(false));
+            provider.getOutFaultInterceptors().add(new SoapMetricsInterceptor(true));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package org.example;
+
+import org.apache.cxf.interceptor.AttachmentOutInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.StaxOutInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Records per-operation phase latencies, payload sizes and faults into {@link SoapMetrics}.
+ *
+ * The phases are delimited by four cheap hooks: RECEIVE (request arrives, parse starts), PRE_INVOKE
+ * (parse done, invoke starts), out SETUP (invoke done, marshal starts) and the close of the response
+ * stream (marshal done). This interceptor is the last hook: in PRE_STREAM it wraps the response stream
+ * in a counting stream that records the exchange when it is closed. It runs on both the out and the
+ * out-fault chain; only the fault chain counts a fault.
+ */
+public class SoapMetricsInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    private final boolean faultChain;
+
+    public SoapMetricsInterceptor(boolean faultChain) {
+        super(Phase.PRE_STREAM);
+        addBefore(ResponseTemplateInterceptor.class.getName());
+        addBefore(StaxOutInterceptor.class.getName());
+        addBefore(AttachmentOutInterceptor.class.getName());
+        this.faultChain = faultChain;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        SoapMetrics.Timing timing = timing(message);
+        OutputStream out = message.getContent(OutputStream.class);
+        if (timing == null || out == null || timing.recorded) {
+            return;
+        }
+        if (faultChain) {
+            timing.fault = true;
+        }
+        if (timing.invokeStart != 0 && timing.invokeEnd == 0) {
+            timing.invokeEnd = System.nanoTime();
+        }
+        String operation = ResponseTemplateInterceptor.operationName(message.getExchange());
+        message.setContent(OutputStream.class, new CountingOutputStream(out, timing, operation));
+    }
+
+    static SoapMetrics.Timing timing(Message message) {
+        Exchange exchange = message.getExchange();
+        return exchange == null ? null : exchange.get(SoapMetrics.Timing.class);
+    }
+
+    /**
+     * Record an exchange that a fast path answered by aborting the in chain
+     */
+    static void streamed(Message message, String operation) {
+        SoapMetrics.Timing timing = timing(message);
+        if (timing != null) {
+            timing.streamed(operation);
+        }
+    }
+
+    /**
+     * Record an exchange answered from the response cache
+     */
+    static void cached(Message message, String operation, long responseBytes) {
+        SoapMetrics.Timing timing = timing(message);
+        if (timing != null) {
+            timing.cached(operation, responseBytes);
+        }
+    }
+
+    /**
+     * Starts the timing of an incoming request and counts its bytes
+     */
+    public static class Receive extends AbstractPhaseInterceptor<Message> {
+
+        private final SoapMetrics metrics;
+
+        public Receive(SoapMetrics metrics) {
+            super(Phase.RECEIVE);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            if (MessageUtils.isRequestor(message) || message.getExchange() == null || StartupWarmup.isWarmup(message)) {
+                return;
+            }
+            SoapMetrics.Timing timing = new SoapMetrics.Timing(metrics);
+            message.getExchange().put(SoapMetrics.Timing.class, timing);
+            InputStream in = message.getContent(InputStream.class);
+            if (in != null) {
+                message.setContent(InputStream.class, new CountingInputStream(in, timing));
+            }
+        }
+    }
+
+    /**
+     * Marks the end of parsing and the start of the service invocation
+     */
+    public static class Invoke extends AbstractPhaseInterceptor<Message> {
+
+        public Invoke() {
+            super(Phase.PRE_INVOKE);
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            SoapMetrics.Timing timing = timing(message);
+            if (timing != null) {
+                timing.invokeStart = System.nanoTime();
+            }
+        }
+    }
+
+    /**
+     * Marks the end of the service invocation and the start of marshalling
+     */
+    public static class Invoked extends AbstractPhaseInterceptor<Message> {
+
+        public Invoked() {
+            super(Phase.SETUP);
+        }
+
+        @Override
+        public void handleMessage(Message message) throws Fault {
+            SoapMetrics.Timing timing = timing(message);
+            if (timing != null && timing.invokeEnd == 0) {
+                timing.invokeEnd = System.nanoTime();
+            }
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final SoapMetrics.Timing timing;
+
+        CountingInputStream(InputStream in, SoapMetrics.Timing timing) {
+            super(in);
+            this.timing = timing;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                timing.requestBytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                timing.requestBytes += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            timing.requestBytes += skipped;
+            return skipped;
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final SoapMetrics.Timing timing;
+        private final String operation;
+        private long count;
+
+        CountingOutputStream(OutputStream out, SoapMetrics.Timing timing, String operation) {
+            this.out = out;
+            this.timing = timing;
+            this.operation = operation;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } finally {
+                timing.complete(operation, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.xml.ws.Dispatch;
+import jakarta.xml.ws.Service;
+import jakarta.xml.ws.WebServiceException;
+import jakarta.xml.ws.soap.SOAPBinding;
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusException;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.endpoint.ServerRegistry;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.ChainInitiationObserver;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.DestinationFactoryManager;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the CXF service model and JAXB context at startup instead of on the first request, and
+ * optionally replays sample requests until the JIT compiler has settled.
+ *
+ * A background thread attaches a destination on CXF's in-process local transport to the HTTP endpoint
+ * of HelloWorldService and sends each warm-up envelope through it once, so the requests run the chain,
+ * service model, JAXB context and service bean of the real endpoint. Warm-up requests are tagged, and
+ * the operation metrics, the message log and the response cache leave them out. With replay on, the
+ * envelopes are then sent round after round until a round triggers almost no JIT compilation or the
+ * time limit is reached. Until all of that is done, {@link #isReady()} is false and
+ * /health answers 503, so load balancers hold traffic back.
+ */
+@ApplicationScoped
+public class StartupWarmup {
+
+    private static final Logger LOG = Logger.getLogger(StartupWarmup.class);
+
+    static final String ADDRESS = "local://soap-warmup/HelloWorldService";
+    static final QName SERVICE = new QName(StreamingEchoInterceptor.NAMESPACE, "HelloWorldService");
+    static final QName PORT = new QName(StreamingEchoInterceptor.NAMESPACE, "HelloWorldPort");
+    static final String WARMUP = StartupWarmup.class.getName() + ".warmup";
+
+    /** Rounds in a row with little compilation before the JIT counts as settled */
+    private static final int SETTLED_ROUNDS = 3;
+
+    private final boolean enabled;
+    private final List<String> requestFiles;
+    private final boolean replay;
+    private final int roundSize;
+    private final Duration maxDuration;
+    private final Duration settleThreshold;
+    private final MeterRegistry registry;
+    private volatile boolean ready;
+
+    @Inject
+    public StartupWarmup(
+            @ConfigProperty(name = "soap.warmup.enabled", defaultValue = "false") boolean enabled,
+            @ConfigProperty(name = "soap.warmup.requests",
+                defaultValue = "sample-requests/sayHello-request.xml,sample-requests/getServerTime-request.xml,sample-requests/echo-request.xml")
+            List<String> requests,
+            @ConfigProperty(name = "soap.warmup.extra-requests") Optional<List<String>> extraRequests,
+            @ConfigProperty(name = "soap.warmup.replay.enabled", defaultValue = "false") boolean replay,
+            @ConfigProperty(name = "soap.warmup.replay.round-size", defaultValue = "500") int roundSize,
+            @ConfigProperty(name = "soap.warmup.replay.max-duration", defaultValue = "60s") Duration maxDuration,
+            @ConfigProperty(name = "soap.warmup.replay.settle-threshold", defaultValue = "20ms") Duration settleThreshold,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.requestFiles = new ArrayList<>(requests);
+        extraRequests.ifPresent(requestFiles::addAll);
+        this.replay = replay;
+        this.roundSize = roundSize;
+        this.maxDuration = maxDuration;
+        this.settleThreshold = settleThreshold;
+        this.registry = registry;
+    }
+
+    void onStart(@Observes StartupEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::warmUp, "soap-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Whether the service should receive traffic; always true when warm-up is disabled
+     */
+    public boolean isReady() {
+        return !enabled || ready;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void warmUp() {
+        Counter sent = Counter.builder("soap.warmup.requests")
+            .description("Requests sent through the in-process endpoint during warm-up")
+            .register(registry);
+        long start = System.nanoTime();
+        Destination destination = null;
+        try {
+            destination = attach(BusFactory.getDefaultBus());
+            if (destination == null) {
+                LOG.warn("HTTP endpoint of HelloWorldService not found on the bus, skipping the warm-up");
+                return;
+            }
+            Dispatch<Source> dispatch = dispatch();
+            List<String> envelopes = new ArrayList<>();
+            for (String file : requestFiles) {
+                String envelope = load(file);
+                try {
+                    send(dispatch, envelope);
+                    sent.increment();
+                    envelopes.add(envelope);
+                } catch (WebServiceException e) {
+                    LOG.warnf("Warm-up request %s failed and is not replayed: %s", file, e.getMessage());
+                }
+            }
+            long modelDone = System.nanoTime();
+            record("model", modelDone - start);
+            LOG.infof("SOAP warm-up done in %d ms", TimeUnit.NANOSECONDS.toMillis(modelDone - start));
+
+            if (replay && !envelopes.isEmpty()) {
+                long replayed = replay(dispatch, envelopes);
+                sent.increment(replayed);
+                long replayTime = System.nanoTime() - modelDone;
+                record("replay", replayTime);
+                LOG.infof("Replayed %d warm-up requests in %d ms", replayed, TimeUnit.NANOSECONDS.toMillis(replayTime));
+            }
+        } catch (RuntimeException | IOException | BusException e) {
+            // A failed warm-up must not keep the instance out of rotation, the first requests just pay for it
+            LOG.warn("SOAP warm-up failed, marking the service ready anyway", e);
+        } finally {
+            if (destination != null) {
+                destination.shutdown();
+            }
+            ready = true;
+        }
+    }
+
+    /**
+     * Send the envelopes in rounds until the JIT compiler settles or the time is up; returns the number sent
+     */
+    private long replay(Dispatch<Source> dispatch, List<String> envelopes) {
+        CompilationMXBean jit = ManagementFactory.getCompilationMXBean();
+        if (jit == null || !jit.isCompilationTimeMonitoringSupported()) {
+            LOG.debug("No JIT compilation to wait for, skipping the replay");
+            return 0;
+        }
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        long threshold = settleThreshold.toMillis();
+        long compileTime = jit.getTotalCompilationTime();
+        long count = 0;
+        int settled = 0;
+        while (settled < SETTLED_ROUNDS && System.nanoTime() < deadline) {
+            for (int i = 0; i < roundSize; i++) {
+                send(dispatch, envelopes.get(i % envelopes.size()));
+            }
+            count += roundSize;
+            long total = jit.getTotalCompilationTime();
+            settled = total - compileTime <= threshold ? settled + 1 : 0;
+            compileTime = total;
+        }
+        if (settled < SETTLED_ROUNDS) {
+            LOG.infof("JIT compilation had not settled after %s, stopping the replay", maxDuration);
+        }
+        return count;
+    }
+
+    private void record(String phase, long nanos) {
+        Timer.builder("soap.warmup.duration")
+            .description("Time spent warming up the SOAP endpoint at startup")
+            .tag("phase", phase)
+            .register(registry)
+            .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Attach a local destination to the HTTP endpoint, so requests sent to {@link #ADDRESS} run through its
+     * chain, service model, data binding and service bean; null when the endpoint is not on the bus
+     */
+    static Destination attach(Bus bus) throws BusException, IOException {
+        Endpoint http = httpEndpoint(bus);
+        if (http == null) {
+            return null;
+        }
+        EndpointInfo info = new EndpointInfo(http.getEndpointInfo().getService(), LocalTransportFactory.TRANSPORT_ID);
+        info.setName(PORT);
+        info.setBinding(http.getEndpointInfo().getBinding());
+        info.setAddress(ADDRESS);
+        Destination destination = bus.getExtension(DestinationFactoryManager.class)
+            .getDestinationFactory(LocalTransportFactory.TRANSPORT_ID)
+            .getDestination(info, bus);
+        destination.setMessageObserver(new ChainInitiationObserver(http, bus) {
+            @Override
+            public void onMessage(Message message) {
+                message.put(WARMUP, Boolean.TRUE);
+                super.onMessage(message);
+            }
+        });
+        return destination;
+    }
+
+    /**
+     * Whether a request was sent by the warm-up; metrics, the message log and the response cache skip those
+     */
+    static boolean isWarmup(Message message) {
+        return Boolean.TRUE.equals(message.get(WARMUP));
+    }
+
+    private static Endpoint httpEndpoint(Bus bus) {
+        ServerRegistry servers = bus.getExtension(ServerRegistry.class);
+        if (servers == null) {
+            return null;
+        }
+        for (Server server : servers.getServers()) {
+            String address = server.getEndpoint().getEndpointInfo().getAddress();
+            if (address != null && !address.startsWith("local:") && address.endsWith("/HelloWorldService")) {
+                return server.getEndpoint();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A message-mode client for the local endpoint that dispatches on the calling thread
+     */
+    static Dispatch<Source> dispatch() {
+        Service service = Service.create(SERVICE);
+        service.addPort(PORT, SOAPBinding.SOAP11HTTP_BINDING, ADDRESS);
+        Dispatch<Source> dispatch = service.createDispatch(PORT, Source.class, Service.Mode.MESSAGE);
+        dispatch.getRequestContext().put(LocalConduit.DIRECT_DISPATCH, Boolean.TRUE);
+        return dispatch;
+    }
+
+    /**
+     * Send one envelope and read the whole response
+     */
+    static void send(Dispatch<Source> dispatch, String envelope) {
+        Source response = dispatch.invoke(new StreamSource(new StringReader(envelope)));
+        try {
+            StaxUtils.read(response);
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Cannot read warm-up response", e);
+        }
+    }
+
+    /**
+     * Read an envelope from a file, or from the classpath when there is no such file
+     */
+    private static String load(String file) throws IOException {
+        Path path = Path.of(file);
+        if (Files.isRegularFile(path)) {
+            return Files.readString(path);
+        }
+        try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(file)) {
+            if (in == null) {
+                throw new FileNotFoundException(file);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
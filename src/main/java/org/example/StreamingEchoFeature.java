@@ -0,0 +1,43 @@
+package org.example;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * CXF feature that enables the streaming fast path for large echo requests.
+ * Registered on the endpoint in application.properties via
+ * quarkus.cxf.endpoint."/HelloWorldService".features
+ */
+@ApplicationScoped
+@Named("streamingEchoFeature")
+public class StreamingEchoFeature extends AbstractFeature {
+
+    private final boolean streamingEnabled;
+    private final long threshold;
+    private final int chunkSize;
+    private final boolean compression;
+
+    @Inject
+    public StreamingEchoFeature(
+            @ConfigProperty(name = "soap.echo.streaming.enabled", defaultValue = "false") boolean streamingEnabled,
+            @ConfigProperty(name = "soap.echo.streaming.threshold", defaultValue = "65536") long threshold,
+            @ConfigProperty(name = "soap.echo.streaming.chunk-size", defaultValue = "8192") int chunkSize,
+            @ConfigProperty(name = "soap.compression.enabled", defaultValue = "true") boolean compression) {
+        this.streamingEnabled = streamingEnabled;
+        this.threshold = threshold;
+        this.chunkSize = chunkSize;
+        this.compression = compression;
+    }
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        if (streamingEnabled) {
+            provider.getInInterceptors().add(new StreamingEchoInterceptor(threshold, chunkSize, compression));
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package org.example;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.cxf.binding.soap.SoapFault;
+import org.apache.cxf.binding.soap.SoapMessage;
+import org.apache.cxf.binding.soap.SoapVersion;
+import org.apache.cxf.binding.soap.interceptor.ReadHeadersInterceptor;
+import org.apache.cxf.binding.soap.interceptor.StartBodyInterceptor;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageUtils;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+import org.codehaus.stax2.XMLStreamReader2;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams large echo requests straight from the request StAX reader to the HTTP response.
+ *
+ * The message text is copied in chunks of at most chunkSize characters, so neither the request
+ * nor the response is ever held as a whole String. Smaller requests, and requests that do not
+ * come in over HTTP, keep using the regular JAXB path. With compression on, the response is
+ * gzipped on the fly for clients that accept it.
+ *
+ * The message is a simple string, so any element inside it, or next to it in echo, is a client fault,
+ * as the schema would report it for a small request. The first chunk of the response is held back until
+ * it is full, so markup found before then still gets a proper fault; after that the client is left with a
+ * broken-off response, as the servlet response cannot take back what it has sent.
+ */
+public class StreamingEchoInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    static final String NAMESPACE = "http://example.org/";
+    static final QName ECHO = new QName(NAMESPACE, "echo");
+    private static final String SOAP_PREFIX = "soap";
+
+    private final long threshold;
+    private final int chunkSize;
+    private final boolean compression;
+
+    public StreamingEchoInterceptor(long threshold, int chunkSize, boolean compression) {
+        super(Phase.READ);
+        // StartBodyInterceptor is not ordered after the headers itself; after both, the reader is at the body child
+        addAfter(ReadHeadersInterceptor.class.getName());
+        addAfter(StartBodyInterceptor.class.getName());
+        this.threshold = threshold;
+        this.chunkSize = chunkSize;
+        this.compression = compression;
+    }
+
+    @Override
+    public void handleMessage(Message message) throws Fault {
+        if (MessageUtils.isRequestor(message) || !(message instanceof SoapMessage)) {
+            return;
+        }
+        HttpServletRequest request = (HttpServletRequest) message.get(AbstractHTTPDestination.HTTP_REQUEST);
+        HttpServletResponse response = (HttpServletResponse) message.get(AbstractHTTPDestination.HTTP_RESPONSE);
+        if (request == null || response == null) {
+            return;
+        }
+
+        // Unknown length (chunked upload) counts as large
+        long contentLength = request.getContentLengthLong();
+        if (contentLength >= 0 && contentLength < threshold) {
+            return;
+        }
+
+        XMLStreamReader reader = message.getContent(XMLStreamReader.class);
+        if (reader == null) {
+            return;
+        }
+
+        try {
+            SchemaValidationInterceptor.skipIgnorable(reader);
+            if (!reader.isStartElement() || !ECHO.equals(reader.getName())) {
+                return;
+            }
+            liftTextLimits(reader);
+            boolean gzip = compression && CompressionFeature.acceptsGzip(request.getHeader("Accept-Encoding"));
+            writeEcho(((SoapMessage) message).getVersion(), reader, new ResponseBody(response, gzip, chunkSize), gzip);
+        } catch (XMLStreamException | IOException e) {
+            throw new Fault(e);
+        }
+
+        SoapMetricsInterceptor.streamed(message, ECHO.getLocalPart());
+        SampledMessageLoggingInterceptor.answered(message, ECHO.getLocalPart(), null);
+        // The response is complete, nothing else in the chain may touch it
+        message.getInterceptorChain().abort();
+    }
+
+    private void writeEcho(SoapVersion version, XMLStreamReader reader, ResponseBody body, boolean gzip)
+            throws XMLStreamException, IOException {
+        boolean hasMessage = moveToMessage(reader);
+
+        OutputStream out = gzip ? new GZIPOutputStream(body, chunkSize) : body;
+
+        XMLStreamWriter writer = StaxUtils.createXMLStreamWriter(out, "UTF-8");
+        writer.writeStartElement(SOAP_PREFIX, "Envelope", version.getNamespace());
+        writer.writeNamespace(SOAP_PREFIX, version.getNamespace());
+        writer.writeStartElement(SOAP_PREFIX, "Body", version.getNamespace());
+        writer.writeStartElement("ns2", "echoResponse", NAMESPACE);
+        writer.writeNamespace("ns2", NAMESPACE);
+        writer.writeStartElement("return");
+
+        if (hasMessage) {
+            writer.writeCharacters("Echo: ");
+            copyText(reader, writer);
+            if (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                throw unexpected(reader);
+            }
+        } else {
+            writer.writeCharacters("Echo: null");
+        }
+
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.writeEndElement();
+        writer.flush();
+        writer.close();
+        if (out instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        body.flush();
+    }
+
+    /**
+     * The text and document size limits of {@link SchemaValidationInterceptor.Limits} are there so no huge
+     * text gets buffered; the streamed message is copied in chunks instead, so it is exempt from them.
+     * Woodstox reads its limits on every check, so they can still be changed on the open reader.
+     */
+    private static void liftTextLimits(XMLStreamReader reader) throws XMLStreamException {
+        if (reader instanceof XMLStreamReader2) {
+            StaxUtils.configureReader(reader, null, null, null, null, Integer.MAX_VALUE, null, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Move from the echo start element to the message start element, if there is one
+     */
+    private static boolean moveToMessage(XMLStreamReader reader) throws XMLStreamException {
+        if (reader.nextTag() == XMLStreamConstants.END_ELEMENT) {
+            return false;
+        }
+        if (!"message".equals(reader.getLocalName())) {
+            throw unexpected(reader);
+        }
+        return true;
+    }
+
+    /**
+     * Copy the text content of the current element chunk by chunk, up to and including its end tag
+     */
+    private void copyText(XMLStreamReader reader, XMLStreamWriter writer) throws XMLStreamException {
+        char[] buffer = new char[chunkSize];
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                return;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                throw unexpected(reader);
+            }
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+                    || event == XMLStreamConstants.SPACE) {
+                int offset = 0;
+                int read;
+                do {
+                    read = reader.getTextCharacters(offset, buffer, 0, buffer.length);
+                    if (read > 0) {
+                        writer.writeCharacters(buffer, 0, read);
+                        offset += read;
+                    }
+                } while (read == buffer.length);
+            }
+        }
+    }
+
+    /**
+     * The fault for markup the schema does not allow, with the reader on the offending start element
+     */
+    private static SoapFault unexpected(XMLStreamReader reader) {
+        return new SoapFault("Invalid request: element " + reader.getLocalName() + " is not allowed here",
+            Fault.FAULT_CODE_CLIENT);
+    }
+
+    /**
+     * The echo response body, kept in memory until the first chunk is complete
+     *
+     * The status and headers are only set when the held bytes are written to the servlet response, so until
+     * then a fault can still take the response over.
+     */
+    private static final class ResponseBody extends OutputStream {
+
+        private final HttpServletResponse response;
+        private final boolean gzip;
+        private final int chunkSize;
+        private ByteArrayOutputStream held;
+        private OutputStream out;
+
+        ResponseBody(HttpServletResponse response, boolean gzip, int chunkSize) {
+            this.response = response;
+            this.gzip = gzip;
+            this.chunkSize = chunkSize;
+            this.held = new ByteArrayOutputStream(chunkSize);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (out != null) {
+                out.write(b, off, len);
+                return;
+            }
+            held.write(b, off, len);
+            if (held.size() >= chunkSize) {
+                send();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (out == null) {
+                send();
+            }
+            out.flush();
+            response.flushBuffer();
+        }
+
+        private void send() throws IOException {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType("text/xml;charset=UTF-8");
+            if (gzip) {
+                response.setHeader("Content-Encoding", "gzip");
+            }
+            out = response.getOutputStream();
+            held.writeTo(out);
+            held = null;
+        }
+    }
+}
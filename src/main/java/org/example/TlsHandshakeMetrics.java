@@ -0,0 +1,93 @@
+package org.example;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for TLS handshakes on the HTTPS listener
+ *
+ * soap_tls_handshakes_total{type=full|resumed|failed} counts handshakes and
+ * soap_tls_handshake_duration_seconds{type=full|resumed} records their latency as a histogram.
+ * soap_tls_reload_duration_seconds and soap_tls_reload_failures_total cover key and trust material reloads.
+ */
+@ApplicationScoped
+public class TlsHandshakeMetrics {
+
+    private final Counter full;
+    private final Counter resumed;
+    private final Counter failed;
+    private final Timer fullDuration;
+    private final Timer resumedDuration;
+    private final Timer reloadDuration;
+    private final Counter reloadFailures;
+
+    @Inject
+    public TlsHandshakeMetrics(MeterRegistry registry) {
+        this.full = handshakes(registry, "full");
+        this.resumed = handshakes(registry, "resumed");
+        this.failed = handshakes(registry, "failed");
+        this.fullDuration = duration(registry, "full");
+        this.resumedDuration = duration(registry, "resumed");
+        this.reloadDuration = Timer.builder("soap.tls.reload.duration")
+            .description("Time to load new key and trust material and swap the server SSL context")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.reloadFailures = Counter.builder("soap.tls.reload.failures")
+            .description("Reloads that failed and kept the previous SSL context")
+            .register(registry);
+    }
+
+    private static Counter handshakes(MeterRegistry registry, String type) {
+        return Counter.builder("soap.tls.handshakes")
+            .description("TLS handshakes on the HTTPS listener")
+            .tag("type", type)
+            .register(registry);
+    }
+
+    private static Timer duration(MeterRegistry registry, String type) {
+        return Timer.builder("soap.tls.handshake.duration")
+            .description("Time from the first handshake record to the finished handshake")
+            .tag("type", type)
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    public void handshakeCompleted(boolean wasResumed, long durationNanos) {
+        if (wasResumed) {
+            resumed.increment();
+            resumedDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+        } else {
+            full.increment();
+            fullDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void handshakeFailed() {
+        failed.increment();
+    }
+
+    public void reloadCompleted(long durationNanos) {
+        reloadDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void reloadFailed() {
+        reloadFailures.increment();
+    }
+
+    public long reloads() {
+        return reloadDuration.count();
+    }
+
+    public double fullHandshakes() {
+        return full.count();
+    }
+
+    public double resumedHandshakes() {
+        return resumed.count();
+    }
+}
@@ -0,0 +1,130 @@
+package org.example;
+
+import io.quarkus.scheduler.Scheduled;
+import io.quarkus.tls.CertificateUpdatedEvent;
+import io.quarkus.tls.TlsConfiguration;
+import io.quarkus.tls.TlsConfigurationRegistry;
+import io.quarkus.tls.runtime.config.TlsConfig;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateEncodingException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Reloads the key and trust material of the HTTPS listener's TLS configuration (quarkus.tls.*) when the
+ * stores change, so certificates and client CAs can be rotated without a restart.
+ *
+ * Every soap.tls.reload.period the stores are re-read through the TLS registry. Only when their certificates
+ * differ from the last load is a CertificateUpdatedEvent fired, on which Quarkus updates the SSL options of
+ * the running listener; the context is rebuilt by Vert.x with the listener's protocols, ciphers and ALPN,
+ * so session resumption and validated client chains are only reset by an actual rotation. A store that
+ * fails to load, for example while it is still being written, leaves the current material in place; the
+ * next check retries.
+ */
+@ApplicationScoped
+public class TlsMaterialReloader {
+
+    private static final Logger LOG = Logger.getLogger(TlsMaterialReloader.class);
+
+    private final boolean enabled;
+    private final String name;
+    private final TlsConfigurationRegistry registry;
+    private final Event<CertificateUpdatedEvent> updated;
+    private final TlsHandshakeMetrics metrics;
+    private byte[] loaded;
+
+    @Inject
+    public TlsMaterialReloader(
+            @ConfigProperty(name = "soap.tls.reload.enabled", defaultValue = "true") boolean enabled,
+            @ConfigProperty(name = "quarkus.http.tls-configuration-name") Optional<String> name,
+            TlsConfigurationRegistry registry,
+            Event<CertificateUpdatedEvent> updated,
+            TlsHandshakeMetrics metrics) {
+        this.enabled = enabled;
+        this.name = name.orElse(TlsConfig.DEFAULT_NAME);
+        this.registry = registry;
+        this.updated = updated;
+        this.metrics = metrics;
+    }
+
+    @Scheduled(every = "${soap.tls.reload.period:10s}", identity = "tls-reload")
+    void check() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    /**
+     * Re-read the stores and update the listener if their certificates changed
+     */
+    public synchronized void reload() {
+        Optional<TlsConfiguration> configuration = registry.get(name);
+        if (configuration.isEmpty()) {
+            return;
+        }
+        TlsConfiguration tls = configuration.get();
+        long start = System.nanoTime();
+        try {
+            if (loaded == null) {
+                loaded = digest(tls);
+            }
+            if (!tls.reload()) {
+                metrics.reloadFailed();
+                LOG.warnf("TLS reload of %s failed, keeping the current key and trust material", name);
+                return;
+            }
+            byte[] current = digest(tls);
+            if (Arrays.equals(current, loaded)) {
+                return;
+            }
+            updated.fire(new CertificateUpdatedEvent(name, tls));
+            loaded = current;
+
+            long elapsed = System.nanoTime() - start;
+            metrics.reloadCompleted(elapsed);
+            LOG.infof("Reloaded TLS key and trust material in %.1f ms", elapsed / 1_000_000.0);
+        } catch (Exception e) {
+            metrics.reloadFailed();
+            LOG.warnf(e, "TLS reload of %s failed, keeping the current key and trust material", name);
+        }
+    }
+
+    /**
+     * SHA-256 over the aliases and certificate chains of both stores
+     */
+    private static byte[] digest(TlsConfiguration tls)
+            throws KeyStoreException, CertificateEncodingException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (KeyStore store : new KeyStore[]{tls.getKeyStore(), tls.getTrustStore()}) {
+            if (store == null) {
+                continue;
+            }
+            List<String> aliases = new ArrayList<>(Collections.list(store.aliases()));
+            Collections.sort(aliases);
+            for (String alias : aliases) {
+                digest.update(alias.getBytes(StandardCharsets.UTF_8));
+                Certificate[] chain = store.isKeyEntry(alias)
+                    ? store.getCertificateChain(alias)
+                    : new Certificate[]{store.getCertificate(alias)};
+                for (Certificate certificate : chain == null ? new Certificate[0] : chain) {
+                    digest.update(certificate.getEncoded());
+                }
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,101 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escapes XML text content and encodes it as UTF-8 in one pass, without intermediate Strings.
+ *
+ * Bytes are staged in a caller-owned scratch buffer; the append methods let a caller build a whole
+ * response in that buffer and hand it to the output stream in a single write.
+ */
+public final class XmlEscaper {
+
+    private static final byte[] AMP = {'&', 'a', 'm', 'p', ';'};
+    private static final byte[] LT = {'&', 'l', 't', ';'};
+    private static final byte[] GT = {'&', 'g', 't', ';'};
+    private static final byte[] CR = {'&', '#', 'x', 'D', ';'};
+
+    private XmlEscaper() {
+    }
+
+    /**
+     * Write value as escaped UTF-8 text content, staging bytes in the given scratch buffer
+     */
+    public static void writeEscaped(CharSequence value, OutputStream out, byte[] scratch) throws IOException {
+        int pos = appendEscaped(value, out, scratch, 0);
+        if (pos > 0) {
+            out.write(scratch, 0, pos);
+        }
+    }
+
+    /**
+     * Append value as escaped UTF-8 text content to the first pos bytes already staged in scratch.
+     * The buffer is written to out only when it fills up; returns the number of bytes left staged in it,
+     * so the caller can append more before the final write.
+     */
+    public static int appendEscaped(CharSequence value, OutputStream out, byte[] scratch, int pos) throws IOException {
+        int limit = scratch.length - 8;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (pos >= limit) {
+                out.write(scratch, 0, pos);
+                pos = 0;
+            }
+            char c = value.charAt(i);
+            if (c > '>' && c < 0x80) {
+                // Letters and most punctuation, the common case
+                scratch[pos++] = (byte) c;
+            } else if (c < 0x80) {
+                switch (c) {
+                    case '&' -> pos = put(scratch, pos, AMP);
+                    case '<' -> pos = put(scratch, pos, LT);
+                    case '>' -> pos = put(scratch, pos, GT);
+                    case '\r' -> pos = put(scratch, pos, CR);
+                    default -> scratch[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                scratch[pos++] = (byte) (0xC0 | (c >> 6));
+                scratch[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                scratch[pos++] = (byte) (0xF0 | (codePoint >> 18));
+                scratch[pos++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                scratch[pos++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                scratch[pos++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Unpaired surrogate, same replacement as String.getBytes(UTF_8)
+                scratch[pos++] = '?';
+            } else {
+                scratch[pos++] = (byte) (0xE0 | (c >> 12));
+                scratch[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                scratch[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Append raw bytes to the first pos bytes staged in scratch, writing the buffer to out when it fills up;
+     * returns the number of bytes left staged
+     */
+    public static int appendRaw(byte[] bytes, OutputStream out, byte[] scratch, int pos) throws IOException {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (pos == scratch.length) {
+                out.write(scratch, 0, pos);
+                pos = 0;
+            }
+            int n = Math.min(bytes.length - offset, scratch.length - pos);
+            System.arraycopy(bytes, offset, scratch, pos, n);
+            offset += n;
+            pos += n;
+        }
+        return pos;
+    }
+
+    private static int put(byte[] scratch, int pos, byte[] escape) {
+        System.arraycopy(escape, 0, scratch, pos, escape.length);
+        return pos + escape.length;
+    }
+}
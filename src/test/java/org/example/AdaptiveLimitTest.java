@@ -0,0 +1,40 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives AdaptiveLimit with synthetic windows, without a server
+ */
+public class AdaptiveLimitTest {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long LATENCY = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * Every window from startup is saturated at a flat latency: there is no queueing, so the limit
+     * must not shrink
+     */
+    @Test
+    public void testSaturatedStartWithFlatLatencyDoesNotShrink() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 8, 1000, WINDOW, 2.0, 0);
+        long now = 0;
+        for (int window = 0; window < 40; window++) {
+            int before = limit.limit();
+            int admitted = 0;
+            while (limit.tryAcquire()) {
+                admitted++;
+            }
+            now += WINDOW;
+            for (int i = 0; i < admitted; i++) {
+                limit.release(LATENCY, now);
+            }
+            assertTrue(limit.limit() >= before, "limit fell from " + before + " to " + limit.limit()
+                + " in window " + window);
+        }
+        assertTrue(limit.limit() > 100, "limit did not grow: " + limit.limit());
+    }
+}
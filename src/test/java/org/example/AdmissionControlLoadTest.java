@@ -0,0 +1,121 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Offers twice the saturation throughput with admission control on and checks that the latency of the
+ * admitted requests stays bounded while the excess is shed with 503.
+ *
+ * Saturation is measured first with a closed loop of no more clients than the minimum limit, so nothing is
+ * shed and shed responses cannot inflate the throughput; the overload phase is open loop, so requests are sent
+ * on schedule whether or not earlier ones have completed, and latency is measured from the scheduled send
+ * time (a closed loop would slow down with the server and hide the queueing).
+ *   mvn test -Dtest=AdmissionControlLoadTest -Dsoap.load-tests=true [-Dsoap.admission.max-p99-ms=500]
+ */
+@QuarkusTest
+@TestProfile(AdmissionControlLoadTest.AdmissionProfile.class)
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class AdmissionControlLoadTest {
+
+    private static final long MAX_P99_MS = Long.getLong("soap.admission.max-p99-ms", 500);
+    private static final int OVERLOAD_SECONDS = 10;
+    private static final int SATURATION_CLIENTS = 16;
+
+    public static class AdmissionProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "soap.admission.enabled", "true",
+                "soap.admission.initial-limit", "32",
+                "soap.admission.min-limit", String.valueOf(SATURATION_CLIENTS),
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+    }
+
+    @BeforeAll
+    public static void mutualTls() {
+        MutualTlsTestSupport.configureRestAssured();
+    }
+
+    @Test
+    public void testLatencyStaysBoundedAtTwiceSaturation() throws Exception {
+        HttpClient client = SoapLoad.newClient();
+        SoapLoad.run(client, SoapLoad.SAY_HELLO, SATURATION_CLIENTS, 5_000);
+        SoapLoad.Result saturation = SoapLoad.run(client, SoapLoad.SAY_HELLO, SATURATION_CLIENTS, 50_000);
+        System.out.printf("saturation: %s%n", saturation);
+        assertEquals(0, saturation.failures(), "requests failed or were shed while measuring saturation");
+
+        double rate = 2 * saturation.throughput();
+        int requests = (int) (rate * OVERLOAD_SECONDS);
+        long period = (long) (1_000_000_000L / rate);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(MutualTlsTestSupport.SOAP_ENDPOINT))
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .timeout(Duration.ofSeconds(60))
+            .POST(HttpRequest.BodyPublishers.ofString(SoapLoad.SAY_HELLO))
+            .build();
+
+        long[] latencies = new long[requests];
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[requests];
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            long scheduled = start + i * period;
+            long delay = scheduled - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    if (error == null && response.statusCode() == 200) {
+                        latencies[admitted.getAndIncrement()] = System.nanoTime() - scheduled;
+                    } else if (error == null && response.statusCode() == 503) {
+                        shed.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                });
+        }
+        CompletableFuture.allOf(calls).exceptionally(e -> null).join();
+
+        long[] sorted = Arrays.copyOf(latencies, admitted.get());
+        Arrays.sort(sorted);
+        long p99 = sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * 0.99) - 1)];
+        System.out.printf("offered %.0f req/s for %d s: %d admitted (p99 %.2f ms), %d shed, %d failed%n",
+            rate, OVERLOAD_SECONDS, sorted.length, p99 / 1_000_000.0, shed.get(), failed.get());
+
+        assertEquals(0, failed.get(), "requests failed other than by shedding");
+        assertTrue(sorted.length > 0, "nothing was admitted");
+        assertTrue(p99 < MAX_P99_MS * 1_000_000, "p99 " + p99 / 1_000_000 + " ms exceeds " + MAX_P99_MS + " ms");
+
+        given()
+          .when().get("/health")
+          .then()
+             .statusCode(200)
+             .body("admission_control.enabled", is(true));
+    }
+}
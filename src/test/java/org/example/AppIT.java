@@ -0,0 +1,10 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+
+/**
+ * Runs the AppTest checks against the packaged application, the native executable with -Dnative
+ */
+@QuarkusIntegrationTest
+public class AppIT extends AppTest {
+}
@@ -2,11 +2,13 @@ package org.example;
 
 import io.quarkus.test.junit.QuarkusTest;
 import io.restassured.RestAssured;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 
 /**
  * Test for Quarkus SOAP Service
@@ -14,6 +16,11 @@ import static org.hamcrest.CoreMatchers.is;
 @QuarkusTest
 public class AppTest {
 
+    @BeforeAll
+    public static void mutualTls() {
+        MutualTlsTestSupport.configureRestAssured();
+    }
+
     @Test
     public void testHealthEndpoint() {
         given()
@@ -32,4 +39,48 @@ public class AppTest {
              .statusCode(200)
              .body(containsString("Quarkus SOAP Service"));
     }
+
+    @Test
+    public void testOperationMetricsEndpoint() {
+        given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .body(SoapLoad.SAY_HELLO)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(200);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("soap_operation_duration_seconds_count{operation=\"sayHello\",phase=\"invoke\"}"))
+             .body(containsString("soap_operation_request_bytes_count{operation=\"sayHello\"}"));
+    }
+
+    @Test
+    public void testResponseCompression() {
+        String echo = SoapLoad.ECHO.replace("Load test message", "x".repeat(4096));
+
+        given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .header("Accept-Encoding", "gzip")
+          .body(echo)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", "gzip")
+             .body(containsString("xxxx"));
+
+        given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .header("Accept-Encoding", "gzip")
+          .body(SoapLoad.SAY_HELLO)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(200)
+             .header("Content-Encoding", nullValue());
+    }
 }
@@ -0,0 +1,76 @@
+package org.example;
+
+import io.quarkiverse.cxf.annotation.CXFClient;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.xml.ws.Response;
+import org.example.client.SayHelloResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Calls the async variants generated by wsdl2java (enableAsyncMapping) with the Quarkus CXF client
+ */
+@QuarkusTest
+public class AsyncSoapClientTest {
+
+    private static final int IN_FLIGHT = 1_000;
+
+    @CXFClient("helloWorldClient")
+    org.example.client.HelloWorldService helloWorldService;
+
+    @Test
+    public void testSayHelloAsyncPolling() throws Exception {
+        Response<SayHelloResponse> response = helloWorldService.sayHelloAsync("Async User");
+
+        String greeting = response.get(30, TimeUnit.SECONDS).getReturn();
+
+        System.out.println("sayHelloAsync Response: " + greeting);
+        assertTrue(greeting.contains("Hello, Async User!"));
+    }
+
+    /**
+     * A single thread sends 1,000 requests without waiting for any of them; callbacks count the responses,
+     * and at least half of them must have been outstanding at once
+     */
+    @Test
+    public void testOneThreadKeepsThousandRequestsInFlight() throws Exception {
+        CountDownLatch done = new CountDownLatch(IN_FLIGHT);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            String name = "User " + i;
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            helloWorldService.sayHelloAsync(name, response -> {
+                try {
+                    if (!response.get().getReturn().contains("Hello, " + name + "!")) {
+                        failures.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    inFlight.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        long sent = System.nanoTime() - start;
+
+        assertTrue(done.await(60, TimeUnit.SECONDS), "responses outstanding: " + done.getCount());
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%d requests sent by one thread in %.1f ms, all answered after %.1f ms, peak in flight %d%n",
+            IN_FLIGHT, sent / 1e6, elapsed / 1e6, peak.get());
+
+        assertEquals(0, failures.get());
+        // Far more than any thread-per-request client could hold, so sending did not wait for responses
+        assertTrue(peak.get() >= IN_FLIGHT / 2, "peak in flight only " + peak.get());
+    }
+}
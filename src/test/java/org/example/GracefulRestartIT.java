@@ -0,0 +1,166 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A rolling restart under constant load: two instances of the packaged jar behind a minimal client-side
+ * load balancer that routes only to instances whose /health answers 200, the way a real one would. While
+ * sayHello and 1 MB echo calls keep running, a second instance is started, the first one gets SIGTERM
+ * and drains, and no call may fail.
+ *
+ * Needs the JVM jar and takes about half a minute, so it only runs when asked for:
+ *   mvn package -DskipTests && mvn verify -DskipITs=false -Dit.test=GracefulRestartIT -Dsoap.load-tests=true
+ */
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class GracefulRestartIT {
+
+    private static final int CONCURRENCY = 16;
+    private static final Duration DRAIN_DELAY = Duration.ofSeconds(2);
+    private static final Duration HEALTH_INTERVAL = Duration.ofMillis(100);
+    private static final String LARGE_ECHO = SoapLoad.ECHO.replace("Load test message", "x".repeat(1024 * 1024));
+
+    private final HttpClient client;
+    private final List<URI> healthy = new CopyOnWriteArrayList<>();
+    private final Map<URI, AtomicLong> served = new ConcurrentHashMap<>();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final AtomicBoolean running = new AtomicBoolean(true);
+
+    public GracefulRestartIT() throws Exception {
+        client = SoapLoad.newClient();
+    }
+
+    @Test
+    public void testRestartUnderLoadFailsNoRequests() throws Exception {
+        assertTrue(Files.isRegularFile(PackagedApp.jar()), "No JVM jar found, run mvn package first");
+        URI first = PackagedApp.endpoint(18444);
+        URI second = PackagedApp.endpoint(18445);
+
+        ExecutorService load = Executors.newFixedThreadPool(CONCURRENCY + 1);
+        try (PackagedApp old = start("drain-old", 18082, 18444)) {
+            old.awaitReady(client);
+            load.submit(() -> checkHealth(List.of(first, second)));
+            for (int i = 0; i < CONCURRENCY; i++) {
+                load.submit(this::callLoop);
+            }
+            Thread.sleep(3_000);
+
+            try (PackagedApp replacement = start("drain-new", 18083, 18445)) {
+                replacement.awaitReady(client);
+                Thread.sleep(2_000);
+
+                long stopStart = System.nanoTime();
+                old.terminate(Duration.ofSeconds(60));
+                System.out.printf("Old instance stopped after %d ms%n",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stopStart));
+                long servedByOld = served.get(first).get();
+                Thread.sleep(3_000);
+
+                running.set(false);
+                load.shutdown();
+                assertTrue(load.awaitTermination(60, TimeUnit.SECONDS));
+
+                System.out.printf("Served by old: %d, by new: %d, failed: %d%n",
+                    servedByOld, served.get(second).get(), failures.get());
+                assertEquals(0, failures.get());
+                assertTrue(servedByOld > 0 && served.get(second).get() > 0);
+                String log = Files.readString(old.log());
+                assertTrue(log.contains("Drained in"), "No drain summary in " + old.log());
+            }
+        } finally {
+            running.set(false);
+            load.shutdownNow();
+        }
+    }
+
+    private PackagedApp start(String name, int httpPort, int httpsPort) throws IOException {
+        served.put(PackagedApp.endpoint(httpsPort), new AtomicLong());
+        return PackagedApp.start(name, PackagedApp.jvmCommand(httpPort, httpsPort,
+            "-Dsoap.drain.delay=" + DRAIN_DELAY.toMillis() + "ms", "-Dsoap.drain.timeout=30s"), httpsPort);
+    }
+
+    /**
+     * Keep the healthy list in step with the /health of every instance
+     */
+    private void checkHealth(List<URI> endpoints) {
+        while (running.get()) {
+            for (URI endpoint : endpoints) {
+                HttpRequest request = HttpRequest.newBuilder(endpoint.resolve("/health"))
+                    .timeout(Duration.ofSeconds(1)).GET().build();
+                boolean up;
+                try {
+                    up = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+                } catch (IOException | InterruptedException e) {
+                    up = false;
+                }
+                if (up && !healthy.contains(endpoint)) {
+                    healthy.add(endpoint);
+                } else if (!up) {
+                    healthy.remove(endpoint);
+                }
+            }
+            try {
+                Thread.sleep(HEALTH_INTERVAL.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closed loop of sayHello and large echo calls to a healthy instance picked at random
+     */
+    private void callLoop() {
+        while (running.get()) {
+            List<URI> targets = List.copyOf(healthy);
+            if (targets.isEmpty()) {
+                Thread.onSpinWait();
+                continue;
+            }
+            URI endpoint = targets.get(ThreadLocalRandom.current().nextInt(targets.size()));
+            String envelope = ThreadLocalRandom.current().nextInt(4) == 0 ? LARGE_ECHO : SoapLoad.SAY_HELLO;
+            HttpRequest request = HttpRequest.newBuilder(endpoint)
+                .header("Content-Type", "text/xml; charset=utf-8")
+                .header("SOAPAction", "\"\"")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                .build();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() == 200) {
+                    served.get(endpoint).incrementAndGet();
+                } else {
+                    failures.incrementAndGet();
+                    System.out.println(endpoint + ": HTTP " + response.statusCode());
+                }
+            } catch (IOException e) {
+                failures.incrementAndGet();
+                System.out.println(endpoint + ": " + e);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * A short open-loop run of the load generator against the test instance: every sample envelope is
+ * sent at the target rate and summarised per operation. The rate is kept low and the warm-up long
+ * enough for a single-core build machine, where the instance under test shares the CPU with the
+ * generator; above its capacity an open-loop run builds an ever growing queue and the latency bound
+ * would fail for the wrong reason.
+ */
+@QuarkusTest
+public class LoadGeneratorTest {
+
+    private static final int RATE = 20;
+
+    @Test
+    public void testSampleRequestsAtTargetRate() throws Exception {
+        LoadGenerator.Options options = LoadGenerator.Options.parse(
+            "--url=" + MutualTlsTestSupport.SOAP_ENDPOINT,
+            "--keystore=" + MutualTlsTestSupport.CLIENT_KEYSTORE,
+            "--truststore=src/test/resources/" + MutualTlsTestSupport.CLIENT_TRUSTSTORE,
+            "--connections=4",
+            "--rate=" + RATE,
+            "--warmup=3s",
+            "--duration=2s");
+
+        LoadGenerator.Summary summary = LoadGenerator.run(options);
+        String json = summary.toJson();
+        System.out.println(json);
+
+        assertEquals(0, summary.errors(), json);
+        // Two seconds at the target rate, give or take a request per operation
+        assertTrue(Math.abs(summary.requests() - 2 * RATE) <= 3, json);
+        // Measured over the time the requests took: only at the target rate if the instance kept up
+        assertTrue(summary.throughput() >= 0.8 * RATE && summary.throughput() <= 1.2 * RATE, json);
+        assertTrue(json.contains("\"sayHello\":{\"requests\":"), json);
+        assertTrue(json.contains("\"echo\":{\"requests\":"), json);
+        assertTrue(json.contains("\"getServerTime\":{\"requests\":"), json);
+        assertTrue(summary.violations(1_000, 0).isEmpty(), json);
+    }
+}
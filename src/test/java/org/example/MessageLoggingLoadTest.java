@@ -0,0 +1,75 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.http.HttpClient;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Load test comparing throughput with full CXF DEBUG logging, sampled message logging and logging off.
+ *
+ * The modes are switched at runtime through the log levels, against the same running instance:
+ *   mvn test -Dtest=MessageLoggingLoadTest -Dsoap.load-tests=true
+ */
+@QuarkusTest
+@TestProfile(MessageLoggingLoadTest.SampledLoggingProfile.class)
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class MessageLoggingLoadTest {
+
+    private static final String[] CXF_CATEGORIES = {"org.apache.cxf", "io.quarkiverse.cxf"};
+    private static final String MESSAGE_LOG = "org.example.MessageLog";
+
+    public static class SampledLoggingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "soap.message-logging.sample-rate", "0.01",
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+    }
+
+    @AfterEach
+    void restoreLevels() {
+        levels(Level.INFO, Level.INFO);
+    }
+
+    @Test
+    public void testThroughputByLoggingMode() throws Exception {
+        HttpClient client = SoapLoad.newClient();
+        // Warm up with logging off
+        levels(Level.INFO, Level.OFF);
+        SoapLoad.run(client, SoapLoad.SAY_HELLO, 32, 5_000);
+
+        levels(Level.FINE, Level.OFF);
+        SoapLoad.Result debug = SoapLoad.run(client, SoapLoad.SAY_HELLO, 32, 20_000);
+        levels(Level.INFO, Level.INFO);
+        SoapLoad.Result sampled = SoapLoad.run(client, SoapLoad.SAY_HELLO, 32, 20_000);
+        levels(Level.INFO, Level.OFF);
+        SoapLoad.Result off = SoapLoad.run(client, SoapLoad.SAY_HELLO, 32, 20_000);
+
+        System.out.printf("CXF DEBUG logging:  %s%n", debug);
+        System.out.printf("sampled logging:    %s%n", sampled);
+        System.out.printf("logging off:        %s%n", off);
+
+        assertEquals(0, debug.failures());
+        assertEquals(0, sampled.failures());
+        assertEquals(0, off.failures());
+    }
+
+    private static void levels(Level cxf, Level messageLog) {
+        for (String category : CXF_CATEGORIES) {
+            Logger.getLogger(category).setLevel(cxf);
+        }
+        Logger.getLogger(MESSAGE_LOG).setLevel(messageLog);
+    }
+}
@@ -0,0 +1,186 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.activation.DataHandler;
+import jakarta.activation.DataSource;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Round-trips a large binary payload through echoBinary as an MTOM attachment and reports the throughput.
+ *
+ * The payload is generated and verified on the fly, so the test itself holds no copy of it; run it with a
+ * small heap to check that neither side buffers the attachment in memory:
+ *   mvn test -Dtest=MtomEchoLoadTest -Dsoap.load-tests=true -DargLine=-Xmx256m [-Dsoap.mtom.size-mb=1024]
+ */
+@QuarkusTest
+@TestProfile(MtomEchoLoadTest.MtomProfile.class)
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class MtomEchoLoadTest {
+
+    private static final long SIZE = Long.getLong("soap.mtom.size-mb", 1024) * 1024 * 1024;
+
+    public static class MtomProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "quarkus.http.limits.max-body-size", "2G",
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+    }
+
+    @Test
+    public void testLargeAttachmentRoundTrip() throws Exception {
+        org.example.client.HelloWorldService client = mtomClient();
+        resetPeakHeap();
+
+        long start = System.nanoTime();
+        DataHandler response = client.echoBinary(new DataHandler(new PatternDataSource(SIZE)));
+        assertNotNull(response);
+        long received;
+        try (InputStream in = response.getInputStream()) {
+            received = verify(in);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("echoBinary %d MB round trip in %.1f s: %.1f MB/s each way, peak heap %d MB (max %d MB)%n",
+            SIZE >> 20, elapsed / 1e9, (SIZE >> 20) / (elapsed / 1e9), peakHeap() >> 20,
+            Runtime.getRuntime().maxMemory() >> 20);
+        assertEquals(SIZE, received);
+    }
+
+    /**
+     * Generated-client proxy with MTOM enabled and no receive timeout, over mutual TLS
+     */
+    private static org.example.client.HelloWorldService mtomClient() throws Exception {
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setServiceClass(org.example.client.HelloWorldService.class);
+        factory.setAddress(MutualTlsTestSupport.SOAP_ENDPOINT);
+        factory.setProperties(Map.of(Message.MTOM_ENABLED, Boolean.TRUE));
+        org.example.client.HelloWorldService port = (org.example.client.HelloWorldService) factory.create();
+
+        HTTPConduit conduit = (HTTPConduit) ClientProxy.getClient(port).getConduit();
+        TLSClientParameters tlsParams = new TLSClientParameters();
+        tlsParams.setSslContext(MutualTlsTestSupport.sslContext());
+        tlsParams.setDisableCNCheck(true);
+        conduit.setTlsClientParameters(tlsParams);
+
+        HTTPClientPolicy policy = new HTTPClientPolicy();
+        policy.setAllowChunking(true);
+        policy.setReceiveTimeout(0);
+        conduit.setClient(policy);
+        return port;
+    }
+
+    /**
+     * Check every byte against the generated pattern and return the number of bytes read
+     */
+    private static long verify(InputStream in) throws IOException {
+        byte[] buffer = new byte[64 * 1024];
+        long position = 0;
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            for (int i = 0; i < n; i++) {
+                if (buffer[i] != PatternDataSource.at(position + i)) {
+                    throw new AssertionError("Mismatch at byte " + (position + i));
+                }
+            }
+            position += n;
+        }
+        return position;
+    }
+
+    private static void resetPeakHeap() {
+        System.gc();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    /**
+     * A deterministic byte pattern of the given size, produced on demand
+     */
+    private static final class PatternDataSource implements DataSource {
+
+        private final long size;
+
+        PatternDataSource(long size) {
+            this.size = size;
+        }
+
+        static byte at(long position) {
+            return (byte) (position * 31 + (position >>> 12));
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new InputStream() {
+                private long position;
+
+                @Override
+                public int read() {
+                    return position < size ? at(position++) & 0xff : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (position >= size) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, size - position);
+                    for (int i = 0; i < n; i++) {
+                        b[off + i] = at(position++);
+                    }
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public OutputStream getOutputStream() throws IOException {
+            throw new IOException("Read-only data source");
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/octet-stream";
+        }
+
+        @Override
+        public String getName() {
+            return "pattern";
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example;
+
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.SSLConfig;
+
+import javax.net.ssl.KeyManagerFactory;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.security.cert.X509Certificate;
+
+/**
+ * Shared mutual TLS setup for tests that talk to the HTTPS listener directly
+ * WARNING: Trusts all server certificates. Only use this for testing!
+ */
+public final class MutualTlsTestSupport {
+
+    public static final int HTTPS_PORT = 8444;
+    public static final String SOAP_ENDPOINT = "https://localhost:" + HTTPS_PORT + "/soap/HelloWorldService";
+    public static final String CLIENT_KEYSTORE = "client-keystore.p12";
+    public static final String CLIENT_TRUSTSTORE = "client-truststore.p12";
+    public static final String KEYSTORE_PASSWORD = "changeit";
+
+    private MutualTlsTestSupport() {
+    }
+
+    /**
+     * Create an SSL context presenting the client certificate and trusting any server
+     */
+    public static SSLContext sslContext() throws Exception {
+        return sslContext(clientKeyStore());
+    }
+
+    /**
+     * Create an SSL context presenting the certificate of the given keystore and trusting any server
+     */
+    public static SSLContext sslContext(KeyStore clientKeyStore) throws Exception {
+        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+        kmf.init(clientKeyStore, KEYSTORE_PASSWORD.toCharArray());
+
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(kmf.getKeyManagers(), trustAll(), new java.security.SecureRandom());
+        return sslContext;
+    }
+
+    /**
+     * Send RestAssured requests straight to the HTTPS listener, presenting the client certificate and
+     * trusting the server certificate. Requests to the HTTP test port would be redirected there, and
+     * RestAssured only applies its SSL settings to the port a request was sent to.
+     */
+    public static void configureRestAssured() {
+        RestAssured.requestSpecification = new RequestSpecBuilder()
+            .setBaseUri("https://localhost")
+            .setPort(HTTPS_PORT)
+            .setConfig(RestAssured.config().sslConfig(SSLConfig.sslConfig()
+                .keyStore(CLIENT_KEYSTORE, KEYSTORE_PASSWORD)
+                .keystoreType("PKCS12")
+                .trustStore(CLIENT_TRUSTSTORE, KEYSTORE_PASSWORD)
+                .trustStoreType("PKCS12")
+                .allowAllHostnames()))
+            .build();
+    }
+
+    /**
+     * Load the client keystore, from the project root first and then from the classpath
+     */
+    public static KeyStore clientKeyStore() throws Exception {
+        KeyStore clientKeyStore = KeyStore.getInstance("PKCS12");
+        try (FileInputStream fis = new FileInputStream(CLIENT_KEYSTORE)) {
+            clientKeyStore.load(fis, KEYSTORE_PASSWORD.toCharArray());
+        } catch (Exception e) {
+            try (InputStream is = MutualTlsTestSupport.class.getClassLoader().getResourceAsStream(CLIENT_KEYSTORE)) {
+                if (is == null) {
+                    throw new RuntimeException("Client keystore not found. Please run generate-mtls-certificates.bat first.");
+                }
+                clientKeyStore.load(is, KEYSTORE_PASSWORD.toCharArray());
+            }
+        }
+        return clientKeyStore;
+    }
+
+    public static TrustManager[] trustAll() {
+        return new TrustManager[]{
+            new X509TrustManager() {
+                public X509Certificate[] getAcceptedIssuers() { return new X509Certificate[0]; }
+                public void checkClientTrusted(X509Certificate[] certs, String authType) { }
+                public void checkServerTrusted(X509Certificate[] certs, String authType) { }
+            }
+        };
+    }
+}
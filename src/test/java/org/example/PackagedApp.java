@@ -0,0 +1,162 @@
+package org.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * A packaged artifact of the service (native executable or JVM jar) running as a separate process,
+ * on ports 18082/18444 unless given others, for integration tests that need a fresh JVM, a real cold
+ * start or a real shutdown
+ */
+final class PackagedApp implements AutoCloseable {
+
+    static final int HTTP_PORT = 18082;
+    static final int HTTPS_PORT = 18444;
+    static final URI ENDPOINT = URI.create("https://localhost:" + HTTPS_PORT + "/soap/HelloWorldService");
+    static final URI HEALTH = ENDPOINT.resolve("/health");
+
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Process process;
+    private final long start;
+    private final Path log;
+    private final URI health;
+
+    private PackagedApp(Process process, long start, Path log, URI health) {
+        this.process = process;
+        this.start = start;
+        this.log = log;
+        this.health = health;
+    }
+
+    /**
+     * SOAP endpoint of an instance listening for HTTPS on the given port
+     */
+    static URI endpoint(int httpsPort) {
+        return URI.create("https://localhost:" + httpsPort + "/soap/HelloWorldService");
+    }
+
+    static Path nativeImage() {
+        return Path.of(System.getProperty("native.image.path", "target/missing-runner"));
+    }
+
+    static Path jar() {
+        return Path.of("target", "quarkus-app", "quarkus-run.jar");
+    }
+
+    /**
+     * Command line running the native executable with the given system properties
+     */
+    static List<String> nativeCommand(String... properties) {
+        List<String> command = new ArrayList<>(List.of(nativeImage().toString()));
+        command.addAll(ports());
+        command.addAll(List.of(properties));
+        return command;
+    }
+
+    /**
+     * Command line running the JVM jar with the given system properties
+     */
+    static List<String> jvmCommand(String... properties) {
+        return jvmCommand(HTTP_PORT, HTTPS_PORT, properties);
+    }
+
+    /**
+     * Command line running the JVM jar on the given ports with the given system properties
+     */
+    static List<String> jvmCommand(int httpPort, int httpsPort, String... properties) {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(ports(httpPort, httpsPort));
+        command.addAll(List.of(properties));
+        command.addAll(List.of("-jar", jar().toString()));
+        return command;
+    }
+
+    private static List<String> ports() {
+        return ports(HTTP_PORT, HTTPS_PORT);
+    }
+
+    private static List<String> ports(int httpPort, int httpsPort) {
+        return List.of("-Dquarkus.http.port=" + httpPort, "-Dquarkus.http.ssl-port=" + httpsPort);
+    }
+
+    /**
+     * Start the command with its output in target/startup-{name}.log
+     */
+    static PackagedApp start(String name, List<String> command) throws IOException {
+        return start(name, command, HTTPS_PORT);
+    }
+
+    /**
+     * Start the command, which listens for HTTPS on the given port, with its output in target/startup-{name}.log
+     */
+    static PackagedApp start(String name, List<String> command, int httpsPort) throws IOException {
+        Path log = Path.of("target", "startup-" + name + ".log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        return new PackagedApp(process, start, log, endpoint(httpsPort).resolve("/health"));
+    }
+
+    /**
+     * Poll /health until it answers 200; returns the nanoseconds since the process was started
+     */
+    long awaitReady(HttpClient client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(health).timeout(Duration.ofSeconds(5)).GET().build();
+        while (System.nanoTime() - start < TIMEOUT_NANOS) {
+            if (!process.isAlive()) {
+                fail("Process exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return System.nanoTime() - start;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        fail("Not ready within 60 s, see " + log);
+        return -1;
+    }
+
+    long pid() {
+        return process.pid();
+    }
+
+    /**
+     * Ask the process to shut down (SIGTERM, as on a rolling deploy) and wait for it to exit
+     */
+    int terminate(Duration timeout) throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            fail("Process did not exit within " + timeout + ", see " + log);
+        }
+        return process.exitValue();
+    }
+
+    Path log() {
+        return log;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+}
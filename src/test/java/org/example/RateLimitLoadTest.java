@@ -0,0 +1,188 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Overloads the service from one client certificate while three others send at a modest pace, and checks
+ * that the limiter only rejects the noisy client and holds it to its own rate.
+ *
+ * Each client gets its own self-signed certificate, generated with keytool into target/rate-limit and
+ * added to a copy of the server truststore.
+ *   mvn test -Dtest=RateLimitLoadTest -Dsoap.load-tests=true
+ */
+@QuarkusTest
+@TestProfile(RateLimitLoadTest.RateLimitProfile.class)
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class RateLimitLoadTest {
+
+    private static final Path DIR = Path.of("target", "rate-limit");
+    private static final int CLIENTS = 4;
+    private static final int RATE = 200;
+    private static final int BURST = 20;
+    private static final int LIGHT_RATE = 50;
+
+    public static class RateLimitProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Path truststore = truststore();
+            return Map.of(
+                "quarkus.tls.trust-store.p12.path", truststore.toAbsolutePath().toString(),
+                "quarkus.tls.trust-store.p12.password", MutualTlsTestSupport.KEYSTORE_PASSWORD,
+                "soap.tls.reload.enabled", "false",
+                "soap.rate-limit.enabled", "true",
+                "soap.rate-limit.rate", Integer.toString(RATE),
+                "soap.rate-limit.burst", Integer.toString(BURST),
+                "soap.rate-limit.max-in-flight", "8",
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+
+        /**
+         * Generate one keystore per client and trust all of them next to the regular test client
+         */
+        private static Path truststore() {
+            char[] password = MutualTlsTestSupport.KEYSTORE_PASSWORD.toCharArray();
+            try (InputStream in = RateLimitLoadTest.class.getClassLoader().getResourceAsStream("truststore.p12")) {
+                Files.createDirectories(DIR);
+                KeyStore truststore = KeyStore.getInstance("PKCS12");
+                truststore.load(in, password);
+                for (int i = 0; i < CLIENTS; i++) {
+                    truststore.setCertificateEntry("client-" + i, keyStore(i).getCertificate("client-" + i));
+                }
+                Path target = DIR.resolve("truststore.p12");
+                try (OutputStream out = Files.newOutputStream(target)) {
+                    truststore.store(out, password);
+                }
+                return target;
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot create client certificates", e);
+            }
+        }
+    }
+
+    static KeyStore keyStore(int client) throws Exception {
+        Path file = DIR.resolve("client-" + client + ".p12");
+        if (!Files.exists(file)) {
+            Process keytool = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "keytool").toString(),
+                "-genkeypair", "-alias", "client-" + client, "-keyalg", "RSA", "-keysize", "2048",
+                "-dname", "CN=client-" + client + ", OU=Load Test, O=Quarkus", "-validity", "2",
+                "-storetype", "PKCS12", "-keystore", file.toString(),
+                "-storepass", MutualTlsTestSupport.KEYSTORE_PASSWORD)
+                .inheritIO()
+                .start();
+            if (!keytool.waitFor(60, TimeUnit.SECONDS) || keytool.exitValue() != 0) {
+                throw new IOException("keytool failed for client " + client);
+            }
+        }
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(file)) {
+            keyStore.load(in, MutualTlsTestSupport.KEYSTORE_PASSWORD.toCharArray());
+        }
+        return keyStore;
+    }
+
+    @Test
+    public void testNoisyClientDoesNotStarveOthers() throws Exception {
+        // One thread per client: on the common pool a paced client could wait for the overload to finish
+        ExecutorService threads = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            clients(threads);
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private void clients(ExecutorService threads) throws Exception {
+        HttpClient noisy = SoapLoad.newClient(MutualTlsTestSupport.sslContext(keyStore(0)));
+        CompletableFuture<SoapLoad.Result> overload = CompletableFuture.supplyAsync(() -> {
+            try {
+                return SoapLoad.run(noisy, SoapLoad.SAY_HELLO, 32, 20_000);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, threads);
+
+        List<CompletableFuture<int[]>> light = new ArrayList<>();
+        for (int i = 1; i < CLIENTS; i++) {
+            HttpClient client = SoapLoad.newClient(MutualTlsTestSupport.sslContext(keyStore(i)));
+            light.add(CompletableFuture.supplyAsync(() -> paced(client, overload), threads));
+        }
+
+        SoapLoad.Result result = overload.get();
+        double accepted = (result.requests() - result.failures()) / (result.elapsedNanos() / 1e9);
+        System.out.printf("noisy client: %s, %.0f req/s accepted%n", result, accepted);
+        assertTrue(result.failures() > 0, "the noisy client was never limited");
+        assertTrue(accepted <= RATE * 1.2 + BURST / (result.elapsedNanos() / 1e9),
+            "noisy client got " + accepted + " req/s through, limit is " + RATE);
+
+        for (int i = 0; i < light.size(); i++) {
+            int[] counts = light.get(i).get();
+            System.out.printf("client %d: %d requests, %d rejected%n", i + 1, counts[0], counts[1]);
+            assertTrue(counts[0] > 0);
+            assertEquals(0, counts[1], "well-behaved client " + (i + 1) + " was rejected");
+        }
+    }
+
+    /**
+     * Send one request every 1 / LIGHT_RATE seconds until the overload is over; returns {sent, rejected}
+     */
+    private static int[] paced(HttpClient client, CompletableFuture<?> until) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(MutualTlsTestSupport.SOAP_ENDPOINT))
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .timeout(Duration.ofSeconds(60))
+            .POST(HttpRequest.BodyPublishers.ofString(SoapLoad.SAY_HELLO))
+            .build();
+        long period = 1_000_000_000L / LIGHT_RATE;
+        long next = System.nanoTime();
+        int sent = 0;
+        int rejected = 0;
+        try {
+            while (!until.isDone()) {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                sent++;
+                if (response.statusCode() != 200) {
+                    rejected++;
+                }
+                next += period;
+                long sleep = next - System.nanoTime();
+                if (sleep > 0) {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return new int[]{sent, rejected};
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusIntegrationTest;
+import io.quarkus.test.junit.TestProfile;
+
+/**
+ * Runs the ResponseCacheTest checks against the packaged application, so the response cache is also
+ * exercised when the integration tests run under the native image agent
+ */
+@QuarkusIntegrationTest
+@TestProfile(ResponseCacheTest.CacheProfile.class)
+public class ResponseCacheIT extends ResponseCacheTest {
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * sayHello with the response cache switched on: repeated names are answered from the cache, differently
+ * formatted requests for the same name share one entry, and arguments that schema validation rejects are
+ * never answered from the entry of a plain one
+ */
+@QuarkusTest
+@TestProfile(ResponseCacheTest.CacheProfile.class)
+public class ResponseCacheTest {
+
+    public static class CacheProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("soap.response-cache.enabled", "true");
+        }
+    }
+
+    private static String sayHello(String envelope) {
+        return post(envelope, 200);
+    }
+
+    private static String post(String envelope, int status) {
+        return given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .body(envelope)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(status)
+             .extract().asString();
+    }
+
+    private static String envelope(String operation, String arguments) {
+        return """
+            <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/"
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"><soap:Body>
+            <ns1:%s xmlns:ns1="http://example.org/">%s</ns1:%s>
+            </soap:Body></soap:Envelope>""".formatted(operation, arguments, operation);
+    }
+
+    @BeforeAll
+    public static void mutualTls() {
+        MutualTlsTestSupport.configureRestAssured();
+    }
+
+    @Test
+    public void testRepeatedCallsAreServedFromCache() {
+        String first = sayHello(SoapLoad.SAY_HELLO.replace("<name>Load<", "<name>Cached User<"));
+        String formatted = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <s:Envelope xmlns:s="http://schemas.xmlsoap.org/soap/envelope/"><s:Body>
+            <hello:sayHello xmlns:hello="http://example.org/"><name>Cached User</name></hello:sayHello>
+            </s:Body></s:Envelope>""";
+        String second = sayHello(formatted);
+        String other = sayHello(SoapLoad.SAY_HELLO.replace("<name>Load<", "<name>Other User<"));
+
+        assertTrue(first.contains("Hello, Cached User!"), first);
+        assertEquals(first, second);
+        assertTrue(other.contains("Hello, Other User!"), other);
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("cache_gets_total{cache=\"soap.response\",result=\"hit\""))
+             .body(containsString("soap_operation_duration_seconds_count{operation=\"sayHello\",phase=\"cache\"}"));
+    }
+
+    /**
+     * A name in another namespace is not the declared argument (JAXB skips it, validation rejects it), so it
+     * is neither answered from nor stored in the entry of the plain name
+     */
+    @Test
+    public void testQualifiedArgumentDoesNotShareEntry() {
+        String qualified = envelope("sayHello", "<x:name xmlns:x=\"urn:other\">Qualified User</x:name>");
+        post(qualified, 500);
+        assertTrue(sayHello(envelope("sayHello", "<name>Qualified User</name>")).contains("Hello, Qualified User!"));
+        post(qualified, 500);
+    }
+
+    /**
+     * xsi:nil="1" is nil just like "true"; the name is not nillable, so validation rejects it instead of the
+     * cache answering it from the entry of an empty name
+     */
+    @Test
+    public void testNilWrittenAsOneDoesNotShareEntry() {
+        assertTrue(sayHello(envelope("sayHello", "<name/>")).contains("Hello, World!"));
+        post(envelope("sayHello", "<name xsi:nil=\"1\"/>"), 500);
+    }
+}
@@ -0,0 +1,213 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.net.ssl.HttpsURLConnection;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Request validation and parser limits: valid requests pass, payloads the schema does not allow get a
+ * fault, and hostile requests (a huge name, deep nesting) are cut off by the parser without the server
+ * buffering them.
+ *
+ * The huge-name case uploads 256 MB and only runs on request, with a heap too small to hold the name:
+ *   mvn test -Dtest=SchemaValidationTest -Dsoap.large-payload-tests=true -DargLine=-Xmx256m
+ */
+@QuarkusTest
+@TestProfile(SchemaValidationTest.ValidationProfile.class)
+public class SchemaValidationTest {
+
+    private static final int MAX_STRING_LENGTH = 1024 * 1024;
+    private static final long HUGE_NAME_SIZE = 256L * 1024 * 1024;
+
+    public static class ValidationProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "soap.validation.enabled", "true",
+                "soap.validation.max-string-length", String.valueOf(MAX_STRING_LENGTH),
+                "soap.validation.max-body-size", String.valueOf(Long.MAX_VALUE),
+                // Let the huge request through the HTTP layer, so it is the parser that has to stop it
+                "quarkus.http.limits.max-body-size", "2G",
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+    }
+
+    private static String post(String envelope, int status) {
+        return given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .body(envelope)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(status)
+             .extract().asString();
+    }
+
+    @BeforeAll
+    public static void mutualTls() {
+        MutualTlsTestSupport.configureRestAssured();
+    }
+
+    @Test
+    public void testValidRequestsPass() {
+        assertTrue(post(SoapLoad.SAY_HELLO, 200).contains("Hello, Load!"));
+        assertTrue(post(SoapLoad.ECHO, 200).contains("Echo: Load test message"));
+        assertTrue(post(SoapLoad.GET_SERVER_TIME, 200).contains("getServerTimeResponse"));
+        String batch = """
+            <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/"
+                xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"><soap:Body>
+            <ns1:sayHelloBatch xmlns:ns1="http://example.org/"><names>A</names><names xsi:nil="true"/><names>B</names></ns1:sayHelloBatch>
+            </soap:Body></soap:Envelope>""";
+        assertTrue(post(batch, 200).contains("Hello, B!"));
+    }
+
+    @Test
+    public void testPayloadOutsideSchemaIsRejected() {
+        String extraElement = SoapLoad.SAY_HELLO.replace("<name>Load</name>", "<name>Load</name><admin>true</admin>");
+        assertTrue(post(extraElement, 500).contains("cvc-complex-type.2.4"));
+
+        String markupInName = SoapLoad.SAY_HELLO.replace("<name>Load</name>", "<name><b>Load</b></name>");
+        assertTrue(post(markupInName, 500).contains("cvc-"));
+    }
+
+    @Test
+    public void testMarkupInStreamedEchoIsRejected() {
+        // Above the streaming threshold, so the echo is copied by StreamingEchoInterceptor, not validated by JAXB
+        String padding = "q".repeat(128 * 1024);
+        String markup = SoapLoad.ECHO.replace("Load test message", "a<b>x</b>c" + padding);
+        String fault = post(markup, 500);
+        assertTrue(fault.contains("Client") && fault.contains("element b is not allowed"), fault);
+
+        String extraElement = SoapLoad.ECHO.replace("</message>", "</message><admin>true</admin><!--" + padding + "-->");
+        assertTrue(post(extraElement, 500).contains("element admin is not allowed"));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "soap.large-payload-tests", matches = "true")
+    public void testHugeNameKeepsHeapFlat() throws Exception {
+        byte[] prefix = ("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+            + "<ns1:sayHello xmlns:ns1=\"http://example.org/\"><name>").getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = "</name></ns1:sayHello></soap:Body></soap:Envelope>".getBytes(StandardCharsets.UTF_8);
+        byte[] chunk = new byte[64 * 1024];
+        Arrays.fill(chunk, (byte) 'q');
+
+        long baseline = resetPeakUsage();
+        int status = send(prefix, chunk, HUGE_NAME_SIZE, suffix);
+        long growth = peakHeapUsage() - baseline;
+
+        System.out.printf("Huge name: %,d chars, HTTP %d, peak heap growth %,d MB%n",
+            HUGE_NAME_SIZE, status, growth / (1024 * 1024));
+        assertNotEquals(200, status);
+        // As a String the name alone would take twice the payload size
+        assertTrue(growth < HUGE_NAME_SIZE, "Heap grew by " + growth + " bytes");
+        post(SoapLoad.SAY_HELLO, 200);
+    }
+
+    @Test
+    public void testDeepNestingIsCutOff() throws Exception {
+        int levels = 100_000;
+        byte[] prefix = ("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+            + "<ns1:sayHello xmlns:ns1=\"http://example.org/\"><name>").getBytes(StandardCharsets.UTF_8);
+        byte[] open = "<a>".getBytes(StandardCharsets.UTF_8);
+        byte[] close = "</a>".getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = "</name></ns1:sayHello></soap:Body></soap:Envelope>".getBytes(StandardCharsets.UTF_8);
+        byte[] nested = new byte[levels * (open.length + close.length)];
+        for (int i = 0; i < levels; i++) {
+            System.arraycopy(open, 0, nested, i * open.length, open.length);
+            System.arraycopy(close, 0, nested, levels * open.length + i * close.length, close.length);
+        }
+
+        int status = send(prefix, nested, nested.length, suffix);
+
+        System.out.printf("Deep nesting: %,d levels, HTTP %d%n", levels, status);
+        assertNotEquals(200, status);
+        given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .body(SoapLoad.SAY_HELLO)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(200)
+             .body(containsString("Hello, Load!"));
+    }
+
+    /**
+     * Stream prefix, size bytes taken repeatedly from body, and suffix, without holding the request.
+     * The server may answer and close before the upload is complete; that counts as rejected (-1).
+     */
+    private static int send(byte[] prefix, byte[] body, long size, byte[] suffix) throws Exception {
+        HttpsURLConnection connection = (HttpsURLConnection) new URL(MutualTlsTestSupport.SOAP_ENDPOINT).openConnection();
+        connection.setSSLSocketFactory(MutualTlsTestSupport.sslContext().getSocketFactory());
+        connection.setHostnameVerifier((hostname, session) -> true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
+        connection.setRequestProperty("SOAPAction", "");
+        connection.setReadTimeout(60_000);
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(prefix.length + size + suffix.length);
+
+        try (OutputStream os = connection.getOutputStream()) {
+            os.write(prefix);
+            for (long written = 0; written < size; written += body.length) {
+                os.write(body, 0, (int) Math.min(body.length, size - written));
+            }
+            os.write(suffix);
+        } catch (IOException e) {
+            return -1;
+        }
+        try {
+            int status = connection.getResponseCode();
+            InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            if (in != null) {
+                in.readAllBytes();
+                in.close();
+            }
+            return status;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long resetPeakUsage() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
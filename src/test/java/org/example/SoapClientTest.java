@@ -9,20 +9,15 @@ import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 
 import jakarta.inject.Inject;
+import jakarta.xml.ws.soap.SOAPFaultException;
 
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.KeyManager;
-import javax.net.ssl.KeyManagerFactory;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-import java.io.BufferedReader;
-import java.io.FileInputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.net.URL;
-import java.security.KeyStore;
-import java.security.cert.X509Certificate;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Test class demonstrating how to call the SOAP service with mutual TLS
@@ -50,6 +45,12 @@ public class SoapClientTest {
     @ConfigProperty(name = "quarkus.cxf.client.helloWorldClient.client-endpoint-url")
     String cxfClientUrl;
 
+    @Inject
+    TlsHandshakeMetrics handshakeMetrics;
+
+    // One pooled HTTP/2 client for the raw envelope calls
+    private static HttpClient rawClient;
+
     @BeforeEach
     void setupSSL() {
         // Set system properties to disable SSL verification for testing
@@ -97,7 +98,6 @@ public class SoapClientTest {
     // @Disabled("Enable this test when you want to test getServerTime with Quarkus client")
     public void testGetServerTimeWithQuarkusClient() throws Exception {
         System.out.println("Calling getServerTime on: " + serviceUrl);
-        configureMutualTLS();
         // Call the service using the injected generated client
         String response = helloWorldService.getServerTime();
 
@@ -124,17 +124,74 @@ public class SoapClientTest {
         assert response.contains("Echo: " + testMessage);
     }
 
+    @Test
+    public void testSayHelloBatchWithQuarkusClient() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            names.add("User " + i);
+        }
+
+        // 500 names is above the parallel threshold, results must still follow the request order
+        List<String> responses = helloWorldService.sayHelloBatch(names);
+
+        assert responses.size() == names.size();
+        for (int i = 0; i < names.size(); i++) {
+            assert responses.get(i).contains("Hello, User " + i + "!");
+        }
+    }
+
+    @Test
+    public void testEchoBatchWithQuarkusClient() throws Exception {
+        List<String> responses = helloWorldService.echoBatch(List.of("first", "second", "third"));
+
+        assert responses.equals(List.of("Echo: first", "Echo: second", "Echo: third"));
+    }
+
+    @Test
+    public void testBatchAboveMaxSizeIsRejected() throws Exception {
+        try {
+            helloWorldService.echoBatch(Collections.nCopies(1001, "item"));
+            assert false : "expected a SOAP fault for an oversized batch";
+        } catch (SOAPFaultException e) {
+            System.out.println("Oversized batch fault: " + e.getMessage());
+            // Raised while the request is parsed, before the items are unmarshalled into a list
+            assert e.getMessage().contains("Batch exceeds the maximum of 1000 items");
+        }
+    }
+
+    /**
+     * The HTTPS listener negotiates HTTP/2 over ALPN, so one pooled connection carries concurrent calls
+     */
+    @Test
+    public void testHttp2IsNegotiatedOverAlpn() throws Exception {
+        HttpResponse<String> response = post(SoapLoad.SAY_HELLO);
+
+        assert response.statusCode() == 200;
+        assert response.version() == HttpClient.Version.HTTP_2 : "negotiated " + response.version();
+    }
+
     /**
-     * Legacy test using manual SSL configuration (kept for reference)
+     * helloWorldClient reuses its pooled connection: sequential calls cost at most the one handshake
+     * that opens it
+     */
+    @Test
+    public void testClientReusesPooledConnection() throws Exception {
+        double before = handshakeMetrics.fullHandshakes() + handshakeMetrics.resumedHandshakes();
+        for (int i = 0; i < 20; i++) {
+            helloWorldService.sayHello("Pool " + i);
+        }
+        double handshakes = handshakeMetrics.fullHandshakes() + handshakeMetrics.resumedHandshakes() - before;
+
+        assert handshakes <= 1 : handshakes + " TLS handshakes for 20 sequential calls";
+    }
+
+    /**
+     * Legacy test posting a raw envelope (kept for reference)
      * The above Quarkus client approach is preferred
      */
     @Test
     @Disabled("Use testSoapServiceWithQuarkusClient instead - this is kept for reference")
     public void testSoapServiceCallManual() throws Exception {
-        // Configure SSL with mutual TLS (client certificate authentication)
-        configureMutualTLS();
-
-        String soapEndpoint = "https://localhost:8444/soap/HelloWorldService";
         String soapRequest = """
             <?xml version="1.0" encoding="UTF-8"?>
             <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
@@ -146,43 +203,16 @@ public class SoapClientTest {
             </soap:Envelope>
             """;
 
-        URL url = new URL(soapEndpoint);
-        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-        
-        // Set request properties
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
-        connection.setRequestProperty("SOAPAction", "");
-        connection.setDoOutput(true);
-
-        // Send request
-        try (OutputStream os = connection.getOutputStream()) {
-            os.write(soapRequest.getBytes());
-        }
-
-        // Read response
-        StringBuilder response = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(connection.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-        }
+        String response = post(soapRequest).body();
+        System.out.println("SOAP Response: " + response);
 
-        System.out.println("SOAP Response: " + response.toString());
-        
         // Basic assertion
-        assert response.toString().contains("Hello, Quarkus!");
+        assert response.contains("Hello, Quarkus!");
     }
 
     @Test
     @Disabled("Use testGetServerTimeWithQuarkusClient instead - this is kept for reference")
     public void testGetServerTimeWithMutualTLSManual() throws Exception {
-        // Configure SSL with mutual TLS
-        configureMutualTLS();
-
-        String soapEndpoint = "https://localhost:8444/soap/HelloWorldService";
         String soapRequest = """
             <?xml version="1.0" encoding="UTF-8"?>
             <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
@@ -192,79 +222,33 @@ public class SoapClientTest {
             </soap:Envelope>
             """;
 
-        URL url = new URL(soapEndpoint);
-        HttpsURLConnection connection = (HttpsURLConnection) url.openConnection();
-
-        // Set request properties
-        connection.setRequestMethod("POST");
-        connection.setRequestProperty("Content-Type", "text/xml; charset=utf-8");
-        connection.setRequestProperty("SOAPAction", "");
-        connection.setDoOutput(true);
-
-        // Send request
-        try (OutputStream os = connection.getOutputStream()) {
-            os.write(soapRequest.getBytes());
-        }
-
-        // Read response
-        StringBuilder response = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(connection.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                response.append(line);
-            }
-        }
-
-        System.out.println("GetServerTime Response: " + response.toString());
+        String response = post(soapRequest).body();
+        System.out.println("GetServerTime Response: " + response);
 
         // Basic assertion - should contain current server time
-        assert response.toString().contains("Current server time:");
+        assert response.contains("Current server time:");
     }
 
     /**
-     * Configure SSL with mutual TLS (client certificate authentication)
-     * WARNING: Only use this for testing! Never in production!
+     * POST an envelope through the shared client; its connections are kept alive and reused across calls
+     * instead of doing a full mTLS handshake per call
      */
-    private void configureMutualTLS() throws Exception {
-        // Load client certificate from keystore
-        KeyStore clientKeyStore = KeyStore.getInstance("PKCS12");
-        String clientKeystorePath = "client-keystore.p12";
-        String keystorePassword = "changeit";
-
-        // Try to load from project root first, then from classpath
-        try (FileInputStream fis = new FileInputStream(clientKeystorePath)) {
-            clientKeyStore.load(fis, keystorePassword.toCharArray());
-        } catch (Exception e) {
-            // If file not found in project root, try loading from classpath
-            try (var is = getClass().getClassLoader().getResourceAsStream(clientKeystorePath)) {
-                if (is == null) {
-                    throw new RuntimeException("Client keystore not found. Please run generate-mtls-certificates.bat first.");
-                }
-                clientKeyStore.load(is, keystorePassword.toCharArray());
-            }
-        }
+    private static HttpResponse<String> post(String envelope) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(MutualTlsTestSupport.SOAP_ENDPOINT))
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .POST(HttpRequest.BodyPublishers.ofString(envelope))
+            .build();
+        return rawClient().send(request, HttpResponse.BodyHandlers.ofString());
+    }
 
-        // Set up KeyManager for client authentication
-        KeyManagerFactory kmf = KeyManagerFactory.getInstance(KeyManagerFactory.getDefaultAlgorithm());
-        kmf.init(clientKeyStore, keystorePassword.toCharArray());
-        KeyManager[] keyManagers = kmf.getKeyManagers();
-
-        // Trust all certificates (for testing with self-signed certificates)
-        TrustManager[] trustAllCerts = new TrustManager[]{
-            new X509TrustManager() {
-                public X509Certificate[] getAcceptedIssuers() { return null; }
-                public void checkClientTrusted(X509Certificate[] certs, String authType) { }
-                public void checkServerTrusted(X509Certificate[] certs, String authType) { }
-            }
-        };
-
-        // Initialize SSL context with both key managers and trust managers
-        SSLContext sslContext = SSLContext.getInstance("TLS");
-        sslContext.init(keyManagers, trustAllCerts, new java.security.SecureRandom());
-
-        // Set the SSL context for HTTPS connections
-        HttpsURLConnection.setDefaultSSLSocketFactory(sslContext.getSocketFactory());
-        HttpsURLConnection.setDefaultHostnameVerifier((hostname, session) -> true);
+    private static synchronized HttpClient rawClient() throws Exception {
+        if (rawClient == null) {
+            rawClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .sslContext(MutualTlsTestSupport.sslContext())
+                .build();
+        }
+        return rawClient;
     }
 }
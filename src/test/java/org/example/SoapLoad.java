@@ -0,0 +1,161 @@
+package org.example;
+
+import javax.net.ssl.SSLContext;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal closed-loop load driver for tests: keeps a fixed number of SOAP requests in flight
+ * against the mTLS endpoint and records latency, failures and throughput.
+ */
+public final class SoapLoad {
+
+    public static final String SAY_HELLO = """
+        <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+          <soap:Body>
+            <ns1:sayHello xmlns:ns1="http://example.org/">
+              <name>Load</name>
+            </ns1:sayHello>
+          </soap:Body>
+        </soap:Envelope>
+        """;
+
+    public static final String GET_SERVER_TIME = """
+        <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+          <soap:Body>
+            <ns1:getServerTime xmlns:ns1="http://example.org/" />
+          </soap:Body>
+        </soap:Envelope>
+        """;
+
+    public static final String ECHO = """
+        <soap:Envelope xmlns:soap="http://schemas.xmlsoap.org/soap/envelope/">
+          <soap:Body>
+            <ns1:echo xmlns:ns1="http://example.org/">
+              <message>Load test message</message>
+            </ns1:echo>
+          </soap:Body>
+        </soap:Envelope>
+        """;
+
+    private SoapLoad() {
+    }
+
+    /**
+     * HTTP/1.1 client with the test client certificate; every concurrent request gets its own connection
+     */
+    public static HttpClient newClient() throws Exception {
+        return newClient(MutualTlsTestSupport.sslContext());
+    }
+
+    /**
+     * HTTP/1.1 client presenting the certificate of the given SSL context
+     */
+    public static HttpClient newClient(SSLContext sslContext) {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .sslContext(sslContext)
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+    }
+
+    /**
+     * Send the given number of requests, keeping at most concurrency of them in flight
+     */
+    public static Result run(HttpClient client, String envelope, int concurrency, int requests) throws Exception {
+        HttpRequest request = request(URI.create(MutualTlsTestSupport.SOAP_ENDPOINT), envelope);
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[requests];
+        CompletableFuture<?>[] calls = new CompletableFuture<?>[requests];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            inFlight.acquire();
+            int index = i;
+            long sent = System.nanoTime();
+            calls[i] = client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    latencies[index] = System.nanoTime() - sent;
+                    if (error != null || response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+        }
+        CompletableFuture.allOf(calls).exceptionally(e -> null).join();
+        return result(latencies, failures.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * Keep sending requests to the given endpoint for the given time, with at most concurrency of them in flight
+     */
+    public static Result runFor(HttpClient client, URI endpoint, String envelope, int concurrency, Duration duration)
+            throws Exception {
+        HttpRequest request = request(endpoint, envelope);
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        AtomicInteger failures = new AtomicInteger();
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        while (System.nanoTime() < deadline) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    latencies.add(System.nanoTime() - sent);
+                    if (error != null || response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                    inFlight.release();
+                });
+        }
+        inFlight.acquire(concurrency);
+        return result(latencies.stream().mapToLong(Long::longValue).toArray(), failures.get(), System.nanoTime() - start);
+    }
+
+    private static HttpRequest request(URI endpoint, String envelope) {
+        return HttpRequest.newBuilder(endpoint)
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .timeout(Duration.ofSeconds(60))
+            .POST(HttpRequest.BodyPublishers.ofString(envelope))
+            .build();
+    }
+
+    private static Result result(long[] latencies, int failures, long elapsedNanos) {
+        int requests = latencies.length;
+        Arrays.sort(latencies);
+        return new Result(requests, failures, elapsedNanos,
+            latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.99) - 1)],
+            latencies[requests - 1]);
+    }
+
+    /**
+     * Outcome of one load run, latencies in nanoseconds
+     */
+    public record Result(int requests, int failures, long elapsedNanos, long p99Nanos, long maxNanos) {
+
+        public double throughput() {
+            return requests / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d requests, %d failed, %.0f req/s, p99 %.2f ms, max %.2f ms",
+                requests, failures, throughput(), p99Nanos / 1_000_000.0, maxNanos / 1_000_000.0);
+        }
+    }
+}
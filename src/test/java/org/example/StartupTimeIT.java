@@ -0,0 +1,100 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cold start of the packaged service: launches each available artifact (native executable, JVM jar, and
+ * the JVM jar with the startup warm-up on) on separate ports and measures the time from process start until
+ * /health is ready, the latency of the first mTLS sayHello after that, and the resident set size after that
+ * response and after 1,000 more requests.
+ *
+ * To compare both modes, package the JVM jar first, then build and verify the native executable:
+ *   mvn package -DskipTests && mvn verify -Dnative
+ * Set -Dsoap.startup.max-ms=... to fail when an artifact takes longer to answer.
+ */
+public class StartupTimeIT {
+
+    private static final long MAX_STARTUP_MS = Long.getLong("soap.startup.max-ms", Long.MAX_VALUE);
+
+    @Test
+    public void testTimeToFirstSoapResponse() throws Exception {
+        int measured = 0;
+
+        if (Files.isRegularFile(PackagedApp.nativeImage())) {
+            measure("native", PackagedApp.nativeCommand());
+            measured++;
+        }
+
+        if (Files.isRegularFile(PackagedApp.jar())) {
+            measure("jvm", PackagedApp.jvmCommand());
+            measure("jvm-warmup", PackagedApp.jvmCommand("-Dsoap.warmup.enabled=true"));
+            measured++;
+        }
+
+        assertTrue(measured > 0, "No packaged artifact found, run mvn package or mvn verify -Dnative first");
+    }
+
+    private static void measure(String mode, List<String> command) throws Exception {
+        try (PackagedApp app = PackagedApp.start(mode, command)) {
+            HttpClient client = SoapLoad.newClient();
+            long ready = app.awaitReady(client);
+            long requestStart = System.nanoTime();
+            assertEquals(200, send(client).statusCode());
+            long firstRequest = System.nanoTime() - requestStart;
+            long rssFirst = rssKilobytes(app.pid());
+            for (int i = 0; i < 1_000; i++) {
+                assertEquals(200, send(client).statusCode());
+            }
+            long rssLoaded = rssKilobytes(app.pid());
+
+            long millis = TimeUnit.NANOSECONDS.toMillis(ready + firstRequest);
+            System.out.printf("%-10s ready after %5d ms, first sayHello %7.1f ms, RSS %s after it, %s after 1,000 requests%n",
+                mode, TimeUnit.NANOSECONDS.toMillis(ready), firstRequest / 1_000_000.0,
+                megabytes(rssFirst), megabytes(rssLoaded));
+            assertTrue(millis <= MAX_STARTUP_MS, mode + " took " + millis + " ms to answer, limit " + MAX_STARTUP_MS);
+        }
+    }
+
+    private static HttpResponse<String> send(HttpClient client) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(PackagedApp.ENDPOINT)
+            .header("Content-Type", "text/xml; charset=utf-8")
+            .header("SOAPAction", "\"\"")
+            .timeout(Duration.ofSeconds(5))
+            .POST(HttpRequest.BodyPublishers.ofString(SoapLoad.SAY_HELLO))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * VmRSS of the process from /proc, or -1 where that is not available
+     */
+    private static long rssKilobytes(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    private static String megabytes(long kilobytes) {
+        return kilobytes < 0 ? "n/a" : (kilobytes / 1024) + " MB";
+    }
+}
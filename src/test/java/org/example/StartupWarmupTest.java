@@ -0,0 +1,90 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Startup warm-up and a short JIT replay switched on: /health reports WARMING_UP with 503 until the
+ * in-process warm-up has run, then UP, the warm-up is exported as metrics, its requests are left out of
+ * the operation metrics and the endpoint answers normally
+ */
+@QuarkusTest
+@TestProfile(StartupWarmupTest.WarmupProfile.class)
+public class StartupWarmupTest {
+
+    private static final Pattern OPERATION_COUNT =
+        Pattern.compile("(?m)^(soap_operation_\\w+(?:_count|_total)\\{[^}]*\\}) (\\S+)$");
+
+    public static class WarmupProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "soap.warmup.enabled", "true",
+                "soap.warmup.replay.enabled", "true",
+                "soap.warmup.replay.round-size", "100",
+                "soap.warmup.replay.max-duration", "2s");
+        }
+    }
+
+    @BeforeAll
+    public static void mutualTls() {
+        MutualTlsTestSupport.configureRestAssured();
+    }
+
+    @Test
+    public void testHealthIsHeldBackUntilWarmedUp() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        Response health;
+        while ((health = given().when().get("/health")).statusCode() == 503) {
+            assertEquals("WARMING_UP", health.path("status"));
+            assertTrue(System.nanoTime() < deadline, "Warm-up did not finish within 30 s");
+            Thread.sleep(50);
+        }
+        assertEquals(200, health.statusCode());
+
+        // Nothing but warm-up traffic has reached the endpoint yet
+        String metrics = given().when().get("/q/metrics").then().statusCode(200).extract().asString();
+        Matcher count = OPERATION_COUNT.matcher(metrics);
+        while (count.find()) {
+            assertEquals(0.0, Double.parseDouble(count.group(2)), "warm-up requests counted in " + count.group(1));
+        }
+
+        given()
+          .when().get("/health")
+          .then()
+             .statusCode(200)
+             .body("status", is("UP"));
+
+        given()
+          .contentType("text/xml; charset=utf-8")
+          .header("SOAPAction", "\"\"")
+          .body(SoapLoad.SAY_HELLO)
+          .when().post("/soap/HelloWorldService")
+          .then()
+             .statusCode(200)
+             .body(containsString("Hello, Load!"));
+
+        given()
+          .when().get("/q/metrics")
+          .then()
+             .statusCode(200)
+             .body(containsString("soap_warmup_duration_seconds_count{phase=\"model\"}"))
+             .body(containsString("soap_warmup_duration_seconds_count{phase=\"replay\"}"))
+             .body(containsString("soap_warmup_requests_total"));
+    }
+}
@@ -0,0 +1,170 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.net.ssl.SSLSocket;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Large-payload test for the streaming echo fast path
+ *
+ * Runs only on request, with a small heap so the JAXB path could not hold a 200 MB echo:
+ *   mvn test -Dtest=StreamingEchoTest -Dsoap.large-payload-tests=true -DargLine=-Xmx256m
+ *
+ * The streaming threshold is set to 16 MB so the 8 MB request still takes the JAXB path and
+ * serves as the comparison point.
+ */
+@QuarkusTest
+@TestProfile(StreamingEchoTest.StreamingProfile.class)
+@EnabledIfSystemProperty(named = "soap.large-payload-tests", matches = "true")
+public class StreamingEchoTest {
+
+    private static final int JAXB_SIZE = 8 * 1024 * 1024;
+    private static final int STREAMING_SIZE = 200 * 1024 * 1024;
+
+    public static class StreamingProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                "soap.echo.streaming.enabled", "true",
+                "soap.echo.streaming.threshold", String.valueOf(16 * 1024 * 1024),
+                // Only the HTTP limit is raised; the parser limits stay at their defaults, which streamed echoes skip
+                "quarkus.http.limits.max-body-size", "2G",
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+    }
+
+    @Test
+    public void testLargeEchoKeepsHeapFlat() throws Exception {
+        Result jaxb = echo(JAXB_SIZE);
+        Result streaming = echo(STREAMING_SIZE);
+
+        System.out.printf("JAXB path:      %,d chars, peak heap growth %,d MB, %d ms%n",
+            JAXB_SIZE, jaxb.heapGrowth / (1024 * 1024), jaxb.millis);
+        System.out.printf("Streaming path: %,d chars, peak heap growth %,d MB, %d ms%n",
+            STREAMING_SIZE, streaming.heapGrowth / (1024 * 1024), streaming.millis);
+
+        // As a String the message alone would take twice the payload size
+        assertTrue(streaming.heapGrowth < STREAMING_SIZE,
+            "Streaming echo should keep heap flat, heap grew by " + streaming.heapGrowth + " bytes");
+    }
+
+    private Result echo(int size) throws Exception {
+        byte[] prefix = ("<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\"><soap:Body>"
+            + "<ns1:echo xmlns:ns1=\"http://example.org/\"><message>").getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = "</message></ns1:echo></soap:Body></soap:Envelope>".getBytes(StandardCharsets.UTF_8);
+
+        // 'q' does not appear anywhere in the response envelope, so counting it counts the payload
+        byte[] chunk = new byte[64 * 1024];
+        Arrays.fill(chunk, (byte) 'q');
+
+        long baseline = resetPeakUsage();
+        long start = System.nanoTime();
+
+        // The echo streams back while the request is still coming in, so the upload runs on its own thread
+        // and the response is read as it arrives; otherwise one side would have to buffer the whole echo
+        try (SSLSocket socket = (SSLSocket) MutualTlsTestSupport.sslContext().getSocketFactory()
+                .createSocket("localhost", URI.create(MutualTlsTestSupport.SOAP_ENDPOINT).getPort())) {
+            String head = "POST " + URI.create(MutualTlsTestSupport.SOAP_ENDPOINT).getPath() + " HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Type: text/xml; charset=utf-8\r\n"
+                + "SOAPAction: \"\"\r\n"
+                + "Content-Length: " + ((long) prefix.length + size + suffix.length) + "\r\n"
+                + "Connection: close\r\n\r\n";
+            CompletableFuture<Void> upload = CompletableFuture.runAsync(() -> {
+                try {
+                    OutputStream os = socket.getOutputStream();
+                    os.write(head.getBytes(StandardCharsets.US_ASCII));
+                    os.write(prefix);
+                    for (int written = 0; written < size; written += chunk.length) {
+                        os.write(chunk, 0, Math.min(chunk.length, size - written));
+                    }
+                    os.write(suffix);
+                    os.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            String status = readLine(in);
+            while (!readLine(in).isEmpty()) {
+                // Skip the response headers
+            }
+            // Chunk sizes are hex, so the only 'q' in the rest of the stream are the echoed payload
+            long echoed = 0;
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == 'q') {
+                        echoed++;
+                    }
+                }
+            }
+            upload.get(60, TimeUnit.SECONDS);
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            assertTrue(status.startsWith("HTTP/1.1 200"), status);
+            assertEquals(size, echoed);
+            return new Result(peakHeapUsage() - baseline, millis);
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return line.toString();
+    }
+
+    private static long resetPeakUsage() {
+        System.gc();
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+                used += pool.getUsage().getUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long peakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    private record Result(long heapGrowth, long millis) {
+    }
+}
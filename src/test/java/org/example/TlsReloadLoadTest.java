@@ -0,0 +1,183 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Rotates the truststore under constant mTLS load and checks that no request fails and latency stays bounded,
+ * and that removing the client's CA rejects new handshakes while established connections keep working.
+ *
+ * The server stores are copied to target/tls-reload so the test can replace the truststore on disk.
+ *   mvn test -Dtest=TlsReloadLoadTest -Dsoap.load-tests=true [-Dsoap.reload.max-latency-ms=1000]
+ */
+@QuarkusTest
+@TestProfile(TlsReloadLoadTest.ReloadProfile.class)
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class TlsReloadLoadTest {
+
+    private static final Path DIR = Path.of("target", "tls-reload");
+    private static final Path TRUSTSTORE = DIR.resolve("truststore.p12");
+    private static final int ROTATIONS = 5;
+    private static final long MAX_LATENCY_MS = Long.getLong("soap.reload.max-latency-ms", 1000);
+    private static final int KEPT_ALIVE = 8;
+    private static final char[] PASSWORD = MutualTlsTestSupport.KEYSTORE_PASSWORD.toCharArray();
+
+    public static class ReloadProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Path keystore = copy("keystore.p12");
+            Path truststore = copy("truststore.p12");
+            return Map.of(
+                "quarkus.tls.key-store.p12.path", keystore.toAbsolutePath().toString(),
+                "quarkus.tls.key-store.p12.password", MutualTlsTestSupport.KEYSTORE_PASSWORD,
+                "quarkus.tls.trust-store.p12.path", truststore.toAbsolutePath().toString(),
+                "quarkus.tls.trust-store.p12.password", MutualTlsTestSupport.KEYSTORE_PASSWORD,
+                "quarkus.http.ssl.client-auth", "required",
+                "soap.tls.reload.period", "1s",
+                "quarkus.log.category.\"org.apache.cxf\".level", "INFO",
+                "quarkus.log.category.\"io.quarkiverse.cxf\".level", "INFO");
+        }
+
+        private static Path copy(String resource) {
+            try (InputStream in = TlsReloadLoadTest.class.getClassLoader().getResourceAsStream(resource)) {
+                Files.createDirectories(DIR);
+                Path target = DIR.resolve(resource);
+                Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                return target;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Inject
+    TlsHandshakeMetrics metrics;
+
+    @Test
+    public void testTruststoreRotationUnderLoad() throws Exception {
+        // Warm up, then keep kept-alive connections busy while the truststore is rotated
+        SoapLoad.run(SoapLoad.newClient(), SoapLoad.SAY_HELLO, 16, 2_000);
+        CompletableFuture<SoapLoad.Result> load = CompletableFuture.supplyAsync(() -> {
+            try {
+                return SoapLoad.run(SoapLoad.newClient(), SoapLoad.SAY_HELLO, 32, 60_000);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        for (int i = 0; i < ROTATIONS; i++) {
+            long reloads = metrics.reloads();
+            rotateTruststore(i);
+            awaitReload(reloads);
+            // A fresh client forces new handshakes against the reloaded context
+            SoapLoad.Result fresh = SoapLoad.run(SoapLoad.newClient(), SoapLoad.SAY_HELLO, 4, 20);
+            assertEquals(0, fresh.failures(), "new connections after reload " + (i + 1));
+            Thread.sleep(500);
+        }
+
+        SoapLoad.Result result = load.get();
+        System.out.printf("during %d truststore rotations: %s%n", ROTATIONS, result);
+        assertEquals(0, result.failures());
+        assertTrue(result.maxNanos() < MAX_LATENCY_MS * 1_000_000,
+            "max latency " + result.maxNanos() / 1_000_000 + " ms exceeds " + MAX_LATENCY_MS + " ms");
+    }
+
+    @Test
+    public void testRemovedClientCaRejectsNewHandshakes() throws Exception {
+        // Open the connections of the kept-alive client, then keep exactly that many requests in flight on them
+        HttpClient kept = SoapLoad.newClient();
+        SoapLoad.run(kept, SoapLoad.SAY_HELLO, KEPT_ALIVE, 200);
+        CompletableFuture<SoapLoad.Result> load = CompletableFuture.supplyAsync(() -> {
+            try {
+                return SoapLoad.runFor(kept, URI.create(MutualTlsTestSupport.SOAP_ENDPOINT), SoapLoad.SAY_HELLO,
+                    KEPT_ALIVE, Duration.ofSeconds(8));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        try {
+            // Trust only the server's own certificate, which did not issue the client's
+            long reloads = metrics.reloads();
+            replaceTruststore(load("client-truststore.p12"));
+            awaitReload(reloads);
+            SoapLoad.Result rejected = SoapLoad.run(SoapLoad.newClient(), SoapLoad.SAY_HELLO, 1, 4);
+            assertEquals(rejected.requests(), rejected.failures(), "new connections without the client's CA");
+        } finally {
+            long reloads = metrics.reloads();
+            replaceTruststore(load("truststore.p12"));
+            awaitReload(reloads);
+        }
+        SoapLoad.Result restored = SoapLoad.run(SoapLoad.newClient(), SoapLoad.SAY_HELLO, 4, 20);
+        assertEquals(0, restored.failures(), "new connections after the client's CA is restored");
+
+        SoapLoad.Result result = load.get();
+        System.out.printf("kept-alive connections while the client's CA was removed: %s%n", result);
+        assertEquals(0, result.failures(), "kept-alive connections");
+    }
+
+    /**
+     * Write the same trusted certificates under new aliases and replace the truststore
+     */
+    private static void rotateTruststore(int generation) throws Exception {
+        KeyStore current = KeyStore.getInstance("PKCS12");
+        try (InputStream in = Files.newInputStream(TRUSTSTORE)) {
+            current.load(in, PASSWORD);
+        }
+        KeyStore rotated = KeyStore.getInstance("PKCS12");
+        rotated.load(null, PASSWORD);
+        for (String alias : Collections.list(current.aliases())) {
+            rotated.setCertificateEntry("gen" + generation + "-" + alias, current.getCertificate(alias));
+        }
+        replaceTruststore(rotated);
+    }
+
+    private static KeyStore load(String resource) throws Exception {
+        KeyStore store = KeyStore.getInstance("PKCS12");
+        try (InputStream in = TlsReloadLoadTest.class.getClassLoader().getResourceAsStream(resource)) {
+            store.load(in, PASSWORD);
+        }
+        return store;
+    }
+
+    /**
+     * Atomically replace the truststore, so the reloader never reads a partly written file
+     */
+    private static void replaceTruststore(KeyStore store) throws Exception {
+        Path temp = Files.createTempFile(DIR, "truststore", ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            store.store(out, PASSWORD);
+        }
+        Files.move(temp, TRUSTSTORE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void awaitReload(long reloads) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (metrics.reloads() == reloads) {
+            assertTrue(System.nanoTime() < deadline, "truststore change was not picked up");
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test measuring new mTLS connections per second with and without session resumption
+ *
+ * Every request opens its own connection. With resumption the client reuses one SSLContext and so
+ * offers its cached session; without it each connection gets a fresh context and a full handshake.
+ *   mvn test -Dtest=TlsResumptionLoadTest -Dsoap.load-tests=true
+ */
+@QuarkusTest
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class TlsResumptionLoadTest {
+
+    private static final int CONNECTIONS = 2_000;
+
+    @Inject
+    TlsHandshakeMetrics metrics;
+
+    @Test
+    public void testHandshakesPerSecondWithAndWithoutResumption() throws Exception {
+        SSLContext shared = MutualTlsTestSupport.sslContext();
+        // Warm up both paths and seed the client session cache
+        run(() -> MutualTlsTestSupport.sslContext(), 200);
+        run(() -> shared, 200);
+
+        double resumedBefore = metrics.resumedHandshakes();
+        double fullBefore = metrics.fullHandshakes();
+        double fullRate = run(() -> MutualTlsTestSupport.sslContext(), CONNECTIONS);
+        double fullHandshakes = metrics.fullHandshakes() - fullBefore;
+
+        resumedBefore = metrics.resumedHandshakes();
+        double resumedRate = run(() -> shared, CONNECTIONS);
+        double resumedHandshakes = metrics.resumedHandshakes() - resumedBefore;
+
+        System.out.printf("full handshakes:    %,.0f connections/s (%,.0f full)%n", fullRate, fullHandshakes);
+        System.out.printf("resumed handshakes: %,.0f connections/s (%,.0f resumed)%n", resumedRate, resumedHandshakes);
+
+        assertTrue(fullHandshakes >= CONNECTIONS, "fresh contexts must not resume");
+        assertTrue(resumedHandshakes > CONNECTIONS / 2.0, "shared context should mostly resume");
+    }
+
+    private double run(Callable<SSLContext> contexts, int connections) throws Exception {
+        byte[] request = request();
+        long start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            SSLContext context = contexts.call();
+            try (SSLSocket socket = (SSLSocket) context.getSocketFactory().createSocket("localhost", 8444)) {
+                socket.startHandshake();
+                OutputStream out = socket.getOutputStream();
+                out.write(request);
+                out.flush();
+                // Reading the response also processes the TLS 1.3 session ticket sent after the handshake
+                InputStream in = socket.getInputStream();
+                in.readAllBytes();
+            }
+        }
+        return connections / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static byte[] request() {
+        byte[] body = SoapLoad.SAY_HELLO.getBytes(StandardCharsets.UTF_8);
+        String head = "POST /soap/HelloWorldService HTTP/1.1\r\n"
+            + "Host: localhost:8444\r\n"
+            + "Content-Type: text/xml; charset=UTF-8\r\n"
+            + "SOAPAction: \"\"\r\n"
+            + "Content-Length: " + body.length + "\r\n"
+            + "Connection: close\r\n\r\n";
+        byte[] headBytes = head.getBytes(StandardCharsets.US_ASCII);
+        byte[] request = new byte[headBytes.length + body.length];
+        System.arraycopy(headBytes, 0, request, 0, headBytes.length);
+        System.arraycopy(body, 0, request, headBytes.length, body.length);
+        return request;
+    }
+}
@@ -0,0 +1,52 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * First-minute latency of a fresh JVM with and without the JIT warm-up replay: starts the packaged jar
+ * twice, waits until /health is ready and then drives sayHello for a minute, so the p99 of the cold run
+ * includes the requests served by interpreted and C1 code.
+ *
+ * Needs the JVM jar and takes a few minutes, so it only runs when asked for:
+ *   mvn package -DskipTests && mvn verify -DskipITs=false -Dit.test=WarmupLatencyIT -Dsoap.load-tests=true
+ */
+@EnabledIfSystemProperty(named = "soap.load-tests", matches = "true")
+public class WarmupLatencyIT {
+
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("soap.warmup.test-seconds", 60));
+    private static final int CONCURRENCY = 16;
+
+    @Test
+    public void testWarmupLowersFirstMinuteP99() throws Exception {
+        assertTrue(Files.isRegularFile(PackagedApp.jar()), "No JVM jar found, run mvn package first");
+
+        SoapLoad.Result cold = firstMinute("jvm-cold", "-Dsoap.warmup.enabled=false");
+        SoapLoad.Result warm = firstMinute("jvm-replay",
+            "-Dsoap.warmup.enabled=true", "-Dsoap.warmup.replay.enabled=true");
+
+        System.out.println("Warm-up off: " + cold);
+        System.out.println("Warm-up on:  " + warm);
+        assertEquals(0, cold.failures());
+        assertEquals(0, warm.failures());
+        assertTrue(warm.p99Nanos() < cold.p99Nanos(),
+            "p99 with warm-up " + warm.p99Nanos() / 1_000_000.0 + " ms, without " + cold.p99Nanos() / 1_000_000.0 + " ms");
+    }
+
+    private static SoapLoad.Result firstMinute(String name, String... properties) throws Exception {
+        try (PackagedApp app = PackagedApp.start(name, PackagedApp.jvmCommand(properties))) {
+            HttpClient client = SoapLoad.newClient();
+            long ready = app.awaitReady(client);
+            System.out.printf("%-10s ready after %d ms%n", name, TimeUnit.NANOSECONDS.toMillis(ready));
+            return SoapLoad.runFor(client, PackagedApp.ENDPOINT, SoapLoad.SAY_HELLO, CONCURRENCY, DURATION);
+        }
+    }
+}